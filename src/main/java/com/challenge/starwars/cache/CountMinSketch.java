@@ -0,0 +1,96 @@
+package com.challenge.starwars.cache;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sketch count-min que estima con memoria fija cuántas veces se accedió a cada clave:
+ * {@value #DEPTH} filas de contadores indexadas con hashes independientes, y la estimación
+ * es el mínimo de las filas, por lo que las colisiones sólo pueden sobreestimar. Tras
+ * {@code 10 × ancho} incrementos todos los contadores se reducen a la mitad, de modo que
+ * la frecuencia refleja los accesos recientes y una clave que deja de consultarse se
+ * enfría. Seguro para hilos; el envejecimiento puede perder algún incremento concurrente,
+ * lo que es aceptable para una estimación.
+ */
+public class CountMinSketch {
+
+    private static final int DEPTH = 4;
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xBF58476D1CE4E5B9L, 0x94D049BB133111EBL, 0xD6E8FEB86659FD93L
+    };
+
+    private final AtomicIntegerArray counters;
+    private final int width;
+    private final int sampleSize;
+    private final AtomicInteger additions = new AtomicInteger();
+    private final ReentrantLock agingLock = new ReentrantLock();
+
+    /**
+     * @param expectedKeys número aproximado de claves distintas que se consultan a la vez;
+     *                     el ancho de cada fila es la siguiente potencia de dos
+     */
+    public CountMinSketch(int expectedKeys) {
+        this.width = Math.max(16, Integer.highestOneBit(Math.max(1, expectedKeys - 1)) << 1);
+        this.sampleSize = 10 * width;
+        this.counters = new AtomicIntegerArray(DEPTH * width);
+    }
+
+    public void increment(Object key) {
+        long hash = key.hashCode();
+        for (int row = 0; row < DEPTH; row++) {
+            counters.incrementAndGet(index(hash, row));
+        }
+        if (additions.incrementAndGet() >= sampleSize) {
+            age();
+        }
+    }
+
+    public int estimate(Object key) {
+        long hash = key.hashCode();
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            estimate = Math.min(estimate, counters.get(index(hash, row)));
+        }
+        return estimate;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getSampleSize() {
+        return sampleSize;
+    }
+
+    private void age() {
+        if (!agingLock.tryLock()) {
+            return;
+        }
+        try {
+            if (additions.get() < sampleSize) {
+                return;
+            }
+            for (int i = 0; i < counters.length(); i++) {
+                counters.set(i, counters.get(i) >>> 1);
+            }
+            additions.addAndGet(-sampleSize / 2);
+        } finally {
+            agingLock.unlock();
+        }
+    }
+
+    private int index(long hash, int row) {
+        return row * width + (int) (mix(hash * SEEDS[row]) >>> 33) % width;
+    }
+
+    /** Finalizador de MurmurHash3 para repartir bien los bits. */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
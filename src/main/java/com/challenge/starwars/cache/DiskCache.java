@@ -0,0 +1,439 @@
+package com.challenge.starwars.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.zip.CRC32C;
+
+/**
+ * Caché de segundo nivel sobre un fichero mapeado en memoria: los valores viven
+ * serializados fuera del heap y sobreviven a los reinicios. Formato (big-endian):
+ * <pre>
+ * cabecera ({@value #HEADER_SIZE} bytes): magic "SWDC" | versión | tamaño de ranura | nº de ranuras
+ * ranuras de tamaño fijo: CRC32C | expiración (epoch ms) | longitud de la clave (0 = libre)
+ *                         | longitud del valor | clave UTF-8 | valor
+ * </pre>
+ * El índice clave → ranura está en el heap y se reconstruye al abrir recorriendo el
+ * fichero; las ranuras vencidas o con checksum incorrecto se descartan. La expiración se
+ * guarda en tiempo de reloj para que siga valiendo tras reiniciar. Sin ranuras libres se
+ * reutiliza la menos usada recientemente (LRU); tras un reinicio el orden inicial es el de
+ * expiración. Los valores que no caben en una ranura no se guardan.
+ */
+@Slf4j
+public class DiskCache<V> implements AutoCloseable {
+
+    static final int MAGIC = 0x53574443;
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_SIZE = 32;
+    static final int SLOT_HEADER_SIZE = 20;
+
+    private final String name;
+    private final Path path;
+    private final int maximumEntries;
+    private final int slotSize;
+    private final long ttlMillis;
+    private final Function<? super V, byte[]> encoder;
+    private final Function<byte[], ? extends V> decoder;
+    private final LongSupplier currentTimeMillis;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, Integer> index = new LinkedHashMap<>(16, 0.75f, true);
+    private final ArrayDeque<Integer> freeSlots = new ArrayDeque<>();
+    private final long[] expiresAt;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    private DiskCache(Builder<V> builder) throws IOException {
+        this.name = Objects.requireNonNull(builder.name);
+        this.path = Objects.requireNonNull(builder.path);
+        this.maximumEntries = builder.maximumEntries;
+        this.slotSize = builder.slotSize;
+        this.ttlMillis = builder.ttl.toMillis();
+        this.encoder = Objects.requireNonNull(builder.encoder);
+        this.decoder = Objects.requireNonNull(builder.decoder);
+        this.currentTimeMillis = builder.currentTimeMillis;
+        this.expiresAt = new long[maximumEntries];
+
+        Path directory = path.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long size = HEADER_SIZE + (long) maximumEntries * slotSize;
+            if (!hasCompatibleHeader(size)) {
+                if (channel.size() > 0) {
+                    log.info("El fichero de la caché {} no coincide con la configuración actual; se descarta", name);
+                }
+                channel.truncate(0);
+            }
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(0, MAGIC)
+                    .putInt(4, FORMAT_VERSION)
+                    .putInt(8, slotSize)
+                    .putInt(12, maximumEntries);
+            recover();
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    public static <V> Builder<V> builder(String name) {
+        return new Builder<>(name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public int getMaximumEntries() {
+        return maximumEntries;
+    }
+
+    public int getSlotSize() {
+        return slotSize;
+    }
+
+    public Duration getTtl() {
+        return Duration.ofMillis(ttlMillis);
+    }
+
+    /**
+     * Devuelve el valor si está vigente. Una entrada que no se puede decodificar (por
+     * ejemplo, escrita por una versión anterior del DTO) se descarta y cuenta como fallo.
+     */
+    public Optional<V> get(String key) {
+        byte[] bytes = read(key);
+        if (bytes == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        V value;
+        try {
+            value = decoder.apply(bytes);
+        } catch (RuntimeException ex) {
+            log.debug("No se pudo decodificar la entrada {} de la caché {}: {}", key, name, ex.getMessage());
+            invalidate(key);
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.ofNullable(value);
+    }
+
+    /**
+     * Indica si hay una entrada vigente para la clave, sin decodificarla ni contabilizar
+     * acierto o fallo.
+     */
+    public boolean contains(String key) {
+        lock.lock();
+        try {
+            Integer slot = index.get(key);
+            return slot != null && currentTimeMillis.getAsLong() < expiresAt[slot];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void put(String key, V value) {
+        if (value == null) {
+            return;
+        }
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        byte[] valueBytes = encoder.apply(value);
+        if (SLOT_HEADER_SIZE + keyBytes.length + valueBytes.length > slotSize) {
+            rejected.increment();
+            return;
+        }
+
+        long expires = currentTimeMillis.getAsLong() + ttlMillis;
+        lock.lock();
+        try {
+            Integer slot = index.get(key);
+            if (slot == null) {
+                slot = allocateSlot();
+                index.put(key, slot);
+            }
+            write(slot, keyBytes, valueBytes, expires);
+            expiresAt[slot] = expires;
+        } finally {
+            lock.unlock();
+        }
+        puts.increment();
+    }
+
+    public void invalidate(String key) {
+        lock.lock();
+        try {
+            Integer slot = index.remove(key);
+            if (slot != null) {
+                release(slot);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            index.values().forEach(this::release);
+            index.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return index.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), puts.sum(), evictions.sum(), expirations.sum(), rejected.sum());
+    }
+
+    /**
+     * Vuelca a disco las páginas modificadas y cierra el fichero. Sin este volcado las
+     * escrituras sobreviven igualmente a un reinicio del proceso (las mantiene el sistema
+     * operativo), pero no a una caída de la máquina.
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            buffer.force();
+            channel.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean hasCompatibleHeader(long expectedSize) throws IOException {
+        if (channel.size() != expectedSize) {
+            return false;
+        }
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+        return header.getInt(0) == MAGIC
+                && header.getInt(4) == FORMAT_VERSION
+                && header.getInt(8) == slotSize
+                && header.getInt(12) == maximumEntries;
+    }
+
+    /**
+     * Reconstruye el índice a partir de las ranuras válidas, de la que vence antes a la
+     * que vence después, de modo que el primer desalojo tras reiniciar afecta a la más próxima a vencer.
+     */
+    private void recover() {
+        long now = currentTimeMillis.getAsLong();
+        Map<String, Integer> valid = new LinkedHashMap<>();
+        for (int slot = 0; slot < maximumEntries; slot++) {
+            String key = readValidKey(slot, now);
+            if (key == null || valid.containsKey(key)) {
+                release(slot);
+            } else {
+                valid.put(key, slot);
+                expiresAt[slot] = buffer.getLong(offset(slot) + 4);
+            }
+        }
+        valid.entrySet().stream()
+                .sorted(Comparator.comparingLong(entry -> expiresAt[entry.getValue()]))
+                .forEach(entry -> index.put(entry.getKey(), entry.getValue()));
+        if (!index.isEmpty()) {
+            log.info("Caché {}: {} entradas recuperadas de {}", name, index.size(), path);
+        }
+    }
+
+    private String readValidKey(int slot, long now) {
+        int offset = offset(slot);
+        int keyLength = buffer.getInt(offset + 12);
+        int valueLength = buffer.getInt(offset + 16);
+        if (keyLength <= 0 || valueLength < 0 || (long) SLOT_HEADER_SIZE + keyLength + valueLength > slotSize) {
+            return null;
+        }
+        if (buffer.getLong(offset + 4) <= now || checksum(offset, keyLength + valueLength) != buffer.getInt(offset)) {
+            return null;
+        }
+        byte[] key = new byte[keyLength];
+        buffer.get(offset + SLOT_HEADER_SIZE, key);
+        return new String(key, StandardCharsets.UTF_8);
+    }
+
+    private byte[] read(String key) {
+        lock.lock();
+        try {
+            Integer slot = index.get(key);
+            if (slot == null) {
+                return null;
+            }
+            if (currentTimeMillis.getAsLong() >= expiresAt[slot]) {
+                index.remove(key);
+                release(slot);
+                expirations.increment();
+                return null;
+            }
+            int offset = offset(slot);
+            int keyLength = buffer.getInt(offset + 12);
+            byte[] value = new byte[buffer.getInt(offset + 16)];
+            buffer.get(offset + SLOT_HEADER_SIZE + keyLength, value);
+            return value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int allocateSlot() {
+        Integer free = freeSlots.poll();
+        if (free != null) {
+            return free;
+        }
+        var eldest = index.entrySet().iterator();
+        int slot = eldest.next().getValue();
+        eldest.remove();
+        if (currentTimeMillis.getAsLong() >= expiresAt[slot]) {
+            expirations.increment();
+        } else {
+            evictions.increment();
+        }
+        return slot;
+    }
+
+    private void write(int slot, byte[] key, byte[] value, long expires) {
+        int offset = offset(slot);
+        buffer.putLong(offset + 4, expires)
+                .putInt(offset + 12, key.length)
+                .putInt(offset + 16, value.length)
+                .put(offset + SLOT_HEADER_SIZE, key)
+                .put(offset + SLOT_HEADER_SIZE + key.length, value);
+        buffer.putInt(offset, checksum(offset, key.length + value.length));
+    }
+
+    private void release(int slot) {
+        int offset = offset(slot);
+        if (buffer.getInt(offset + 12) != 0) {
+            buffer.putInt(offset + 12, 0);
+        }
+        expiresAt[slot] = 0;
+        freeSlots.add(slot);
+    }
+
+    /**
+     * CRC32C desde la expiración hasta el final del valor.
+     */
+    private int checksum(int offset, int payloadLength) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset + 4, SLOT_HEADER_SIZE - 4 + payloadLength));
+        return (int) crc.getValue();
+    }
+
+    private int offset(int slot) {
+        return HEADER_SIZE + slot * slotSize;
+    }
+
+    public record Stats(long hits, long misses, long puts, long evictions, long expirations, long rejected) {
+
+        public double hitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 0.0 : (double) hits / requests;
+        }
+    }
+
+    public static final class Builder<V> {
+
+        private final String name;
+        private Path path;
+        private int maximumEntries = 10_000;
+        private int slotSize = 512;
+        private Duration ttl = Duration.ofHours(24);
+        private Function<? super V, byte[]> encoder;
+        private Function<byte[], ? extends V> decoder;
+        private LongSupplier currentTimeMillis = System::currentTimeMillis;
+
+        private Builder(String name) {
+            this.name = name;
+        }
+
+        public Builder<V> path(Path path) {
+            this.path = path;
+            return this;
+        }
+
+        public Builder<V> maximumEntries(int maximumEntries) {
+            if (maximumEntries <= 0) {
+                throw new IllegalArgumentException("El número máximo de entradas de la caché debe ser positivo");
+            }
+            this.maximumEntries = maximumEntries;
+            return this;
+        }
+
+        public Builder<V> slotSize(int slotSize) {
+            if (slotSize <= SLOT_HEADER_SIZE) {
+                throw new IllegalArgumentException("El tamaño de ranura debe superar los " + SLOT_HEADER_SIZE + " bytes");
+            }
+            this.slotSize = slotSize;
+            return this;
+        }
+
+        public Builder<V> ttl(Duration ttl) {
+            this.ttl = ttl;
+            return this;
+        }
+
+        public Builder<V> codec(Function<? super V, byte[]> encoder, Function<byte[], ? extends V> decoder) {
+            this.encoder = encoder;
+            this.decoder = decoder;
+            return this;
+        }
+
+        public Builder<V> currentTimeMillis(LongSupplier currentTimeMillis) {
+            this.currentTimeMillis = currentTimeMillis;
+            return this;
+        }
+
+        public DiskCache<V> build() {
+            if (HEADER_SIZE + (long) maximumEntries * slotSize > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("La caché " + name + " no cabe en un único fichero mapeado (máx. 2 GB)");
+            }
+            try {
+                return new DiskCache<>(this);
+            } catch (IOException ex) {
+                throw new UncheckedIOException("No se pudo abrir el fichero de la caché " + name, ex);
+            }
+        }
+    }
+}
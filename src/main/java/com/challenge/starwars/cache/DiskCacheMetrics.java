@@ -0,0 +1,75 @@
+package com.challenge.starwars.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+
+/**
+ * Publica en Micrometer las métricas estándar de caché de un {@link DiskCache}, junto con
+ * su tasa de aciertos, las entradas vencidas y las descartadas por no caber en una ranura.
+ */
+public class DiskCacheMetrics extends CacheMeterBinder<DiskCache<?>> {
+
+    public DiskCacheMetrics(DiskCache<?> cache) {
+        super(cache, cache.getName(), Tags.empty());
+    }
+
+    @Override
+    protected Long size() {
+        DiskCache<?> cache = getCache();
+        return cache == null ? null : (long) cache.size();
+    }
+
+    @Override
+    protected long hitCount() {
+        DiskCache<?> cache = getCache();
+        return cache == null ? 0 : cache.stats().hits();
+    }
+
+    @Override
+    protected Long missCount() {
+        DiskCache<?> cache = getCache();
+        return cache == null ? null : cache.stats().misses();
+    }
+
+    @Override
+    protected Long evictionCount() {
+        DiskCache<?> cache = getCache();
+        return cache == null ? null : cache.stats().evictions();
+    }
+
+    @Override
+    protected long putCount() {
+        DiskCache<?> cache = getCache();
+        return cache == null ? 0 : cache.stats().puts();
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        DiskCache<?> cache = getCache();
+        if (cache == null) {
+            return;
+        }
+
+        FunctionCounter.builder("cache.expirations", cache, c -> c.stats().expirations())
+                .tags(getTagsWithCacheName())
+                .description("Entradas descartadas por vencimiento")
+                .register(registry);
+
+        FunctionCounter.builder("cache.rejected", cache, c -> c.stats().rejected())
+                .tags(getTagsWithCacheName())
+                .description("Valores no guardados por superar el tamaño de ranura")
+                .register(registry);
+
+        Gauge.builder("cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .tags(getTagsWithCacheName())
+                .description("Proporción de lecturas servidas desde la caché")
+                .register(registry);
+
+        Gauge.builder("cache.max.size", cache, DiskCache::getMaximumEntries)
+                .tags(getTagsWithCacheName())
+                .register(registry);
+    }
+}
@@ -0,0 +1,361 @@
+package com.challenge.starwars.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Caché en memoria acotada por tamaño (LRU) con expiración por TTL y soporte de
+ * stale-while-revalidate: durante la ventana de revalidación se devuelve el valor
+ * vencido y se recarga en segundo plano.
+ */
+@Slf4j
+public class ExpiringCache<K, V> {
+
+    private final String name;
+    private final int maximumSize;
+    private final long ttlNanos;
+    private final long staleWhileRevalidateNanos;
+    private final Executor refreshExecutor;
+    private final LongSupplier nanoTime;
+    private final CountMinSketch frequencySketch;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+
+    private ExpiringCache(Builder<K, V> builder) {
+        this.name = Objects.requireNonNull(builder.name);
+        this.maximumSize = builder.maximumSize;
+        this.ttlNanos = builder.ttl.toNanos();
+        this.staleWhileRevalidateNanos = builder.staleWhileRevalidate.toNanos();
+        this.refreshExecutor = builder.refreshExecutor;
+        this.nanoTime = builder.nanoTime;
+        this.frequencySketch = builder.frequencySketch;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > maximumSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public static <K, V> Builder<K, V> builder(String name) {
+        return new Builder<>(name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Devuelve el valor asociado a la clave, cargándolo con {@code loader} si no existe o
+     * si ya superó la ventana de stale-while-revalidate. Las excepciones del loader se propagan.
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        return get(key, loader, loader);
+    }
+
+    /**
+     * Como {@link #get(Object, Function)}, pero la revalidación en segundo plano de un valor
+     * vencido usa {@code refresher} en lugar de {@code loader}; sirve cuando el loader puede
+     * devolver la misma copia desde otro nivel de caché y el refresco debe ir al origen.
+     */
+    public V get(K key, Function<? super K, ? extends V> loader, Function<? super K, ? extends V> refresher) {
+        if (frequencySketch != null) {
+            frequencySketch.increment(key);
+        }
+        long now = nanoTime.getAsLong();
+        Entry<V> entry = lookup(key);
+
+        if (entry != null) {
+            if (now < entry.freshUntil) {
+                hits.increment();
+                entry.accessed = true;
+                return entry.value;
+            }
+            if (now < entry.staleUntil && refreshExecutor != null) {
+                staleHits.increment();
+                entry.accessed = true;
+                scheduleRefresh(key, entry, refresher);
+                return entry.value;
+            }
+        }
+
+        misses.increment();
+        V value;
+        try {
+            value = loader.apply(key);
+        } catch (RuntimeException ex) {
+            loadFailures.increment();
+            throw ex;
+        }
+        put(key, value);
+        return value;
+    }
+
+    /**
+     * Devuelve el valor sólo si está vigente (fresco o dentro de la ventana de revalidación),
+     * sin cargarlo ni contabilizar acierto o fallo.
+     */
+    public Optional<V> getIfPresent(K key) {
+        Entry<V> entry = lookup(key);
+        if (entry == null || nanoTime.getAsLong() >= entry.staleUntil) {
+            return Optional.empty();
+        }
+        return Optional.of(entry.value);
+    }
+
+    /**
+     * Devuelve el último valor conocido aunque haya vencido, mientras no haya sido desalojado.
+     * Pensado como respaldo cuando la fuente original no está disponible.
+     */
+    public Optional<V> getLastKnown(K key) {
+        Entry<V> entry = lookup(key);
+        return entry == null ? Optional.empty() : Optional.of(entry.value);
+    }
+
+    public void put(K key, V value) {
+        put(key, value, ttlNanos);
+    }
+
+    public void put(K key, V value, Duration ttl) {
+        put(key, value, ttl.toNanos());
+    }
+
+    private void put(K key, V value, long entryTtlNanos) {
+        if (value == null) {
+            return;
+        }
+        long now = nanoTime.getAsLong();
+        Entry<V> entry = new Entry<>(value, now + entryTtlNanos, now + entryTtlNanos + staleWhileRevalidateNanos);
+        lock.lock();
+        try {
+            entries.put(key, entry);
+        } finally {
+            lock.unlock();
+        }
+        puts.increment();
+    }
+
+    public void invalidate(K key) {
+        lock.lock();
+        try {
+            entries.remove(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            entries.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Frecuencia de acceso estimada de la clave en las lecturas con {@link #get}, o 0 si la
+     * caché no tiene sketch de frecuencia.
+     */
+    public int frequency(K key) {
+        return frequencySketch == null ? 0 : frequencySketch.estimate(key);
+    }
+
+    /**
+     * Entradas todavía frescas que vencen dentro de {@code window}, se leyeron desde que se
+     * guardaron y cuya frecuencia de acceso es al menos {@code minFrequency}, de la más a la
+     * menos consultada. Pensado para refrescarlas por adelantado: una entrada refrescada que
+     * nadie vuelve a leer no se refresca otra vez. Sin sketch de frecuencia devuelve una
+     * lista vacía.
+     */
+    public List<HotEntry<K>> hottestExpiringWithin(Duration window, int minFrequency, int limit) {
+        if (frequencySketch == null) {
+            return List.of();
+        }
+        long now = nanoTime.getAsLong();
+        long windowNanos = window.toNanos();
+        List<HotEntry<K>> expiring = new ArrayList<>();
+        lock.lock();
+        try {
+            entries.forEach((key, entry) -> {
+                long remaining = entry.freshUntil - now;
+                if (entry.accessed && remaining > 0 && remaining <= windowNanos) {
+                    int frequency = frequencySketch.estimate(key);
+                    if (frequency >= minFrequency) {
+                        expiring.add(new HotEntry<>(key, frequency, Duration.ofNanos(remaining)));
+                    }
+                }
+            });
+        } finally {
+            lock.unlock();
+        }
+        return expiring.stream()
+                .sorted(Comparator.comparingInt((HotEntry<K> entry) -> entry.frequency()).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public Duration getTtl() {
+        return Duration.ofNanos(ttlNanos);
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(
+                hits.sum(),
+                staleHits.sum(),
+                misses.sum(),
+                puts.sum(),
+                evictions.sum(),
+                loadFailures.sum()
+        );
+    }
+
+    private Entry<V> lookup(K key) {
+        lock.lock();
+        try {
+            return entries.get(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void scheduleRefresh(K key, Entry<V> entry, Function<? super K, ? extends V> loader) {
+        if (!entry.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    put(key, loader.apply(key));
+                } catch (RuntimeException ex) {
+                    loadFailures.increment();
+                    entry.refreshing.set(false);
+                    log.warn("No se pudo revalidar la entrada {} de la caché {}: {}", key, name, ex.getMessage());
+                }
+            });
+        } catch (RuntimeException ex) {
+            entry.refreshing.set(false);
+            log.warn("No se pudo programar la revalidación de la caché {}: {}", name, ex.getMessage());
+        }
+    }
+
+    private static final class Entry<V> {
+
+        private final V value;
+        private final long freshUntil;
+        private final long staleUntil;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+        private volatile boolean accessed;
+
+        private Entry(V value, long freshUntil, long staleUntil) {
+            this.value = value;
+            this.freshUntil = freshUntil;
+            this.staleUntil = staleUntil;
+        }
+    }
+
+    public record HotEntry<K>(K key, int frequency, Duration timeToExpiry) {
+    }
+
+    public record CacheStats(long hits, long staleHits, long misses, long puts, long evictions, long loadFailures) {
+
+        public double hitRate() {
+            long requests = hits + staleHits + misses;
+            return requests == 0 ? 0.0 : (double) (hits + staleHits) / requests;
+        }
+    }
+
+    public static final class Builder<K, V> {
+
+        private final String name;
+        private int maximumSize = 1_000;
+        private Duration ttl = Duration.ofMinutes(10);
+        private Duration staleWhileRevalidate = Duration.ZERO;
+        private Executor refreshExecutor;
+        private LongSupplier nanoTime = System::nanoTime;
+        private CountMinSketch frequencySketch;
+
+        private Builder(String name) {
+            this.name = name;
+        }
+
+        public Builder<K, V> maximumSize(int maximumSize) {
+            if (maximumSize <= 0) {
+                throw new IllegalArgumentException("El tamaño máximo de la caché debe ser positivo");
+            }
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        public Builder<K, V> ttl(Duration ttl) {
+            this.ttl = ttl;
+            return this;
+        }
+
+        public Builder<K, V> staleWhileRevalidate(Duration staleWhileRevalidate) {
+            this.staleWhileRevalidate = staleWhileRevalidate;
+            return this;
+        }
+
+        public Builder<K, V> refreshExecutor(Executor refreshExecutor) {
+            this.refreshExecutor = refreshExecutor;
+            return this;
+        }
+
+        public Builder<K, V> nanoTime(LongSupplier nanoTime) {
+            this.nanoTime = nanoTime;
+            return this;
+        }
+
+        /**
+         * Estima la frecuencia de acceso de cada clave (ver {@link #hottestExpiringWithin}).
+         */
+        public Builder<K, V> frequencySketch(CountMinSketch frequencySketch) {
+            this.frequencySketch = frequencySketch;
+            return this;
+        }
+
+        public ExpiringCache<K, V> build() {
+            return new ExpiringCache<>(this);
+        }
+    }
+}
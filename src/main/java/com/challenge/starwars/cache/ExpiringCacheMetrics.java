@@ -0,0 +1,75 @@
+package com.challenge.starwars.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+
+/**
+ * Publica en Micrometer las métricas estándar de caché (cache.gets, cache.puts,
+ * cache.evictions, cache.size) de un {@link ExpiringCache}, junto con su tasa de aciertos.
+ */
+public class ExpiringCacheMetrics extends CacheMeterBinder<ExpiringCache<?, ?>> {
+
+    public ExpiringCacheMetrics(ExpiringCache<?, ?> cache) {
+        super(cache, cache.getName(), Tags.empty());
+    }
+
+    @Override
+    protected Long size() {
+        ExpiringCache<?, ?> cache = getCache();
+        return cache == null ? null : (long) cache.size();
+    }
+
+    @Override
+    protected long hitCount() {
+        ExpiringCache<?, ?> cache = getCache();
+        return cache == null ? 0 : cache.stats().hits() + cache.stats().staleHits();
+    }
+
+    @Override
+    protected Long missCount() {
+        ExpiringCache<?, ?> cache = getCache();
+        return cache == null ? null : cache.stats().misses();
+    }
+
+    @Override
+    protected Long evictionCount() {
+        ExpiringCache<?, ?> cache = getCache();
+        return cache == null ? null : cache.stats().evictions();
+    }
+
+    @Override
+    protected long putCount() {
+        ExpiringCache<?, ?> cache = getCache();
+        return cache == null ? 0 : cache.stats().puts();
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        ExpiringCache<?, ?> cache = getCache();
+        if (cache == null) {
+            return;
+        }
+
+        FunctionCounter.builder("cache.stale.hits", cache, c -> c.stats().staleHits())
+                .tags(getTagsWithCacheName())
+                .description("Aciertos servidos durante la ventana de stale-while-revalidate")
+                .register(registry);
+
+        FunctionCounter.builder("cache.load.failures", cache, c -> c.stats().loadFailures())
+                .tags(getTagsWithCacheName())
+                .description("Cargas o revalidaciones fallidas")
+                .register(registry);
+
+        Gauge.builder("cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .tags(getTagsWithCacheName())
+                .description("Proporción de lecturas servidas desde la caché")
+                .register(registry);
+
+        Gauge.builder("cache.max.size", cache, ExpiringCache::getMaximumSize)
+                .tags(getTagsWithCacheName())
+                .register(registry);
+    }
+}
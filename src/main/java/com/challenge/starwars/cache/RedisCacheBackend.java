@@ -0,0 +1,344 @@
+package com.challenge.starwars.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * {@link SharedCacheBackend} que habla el protocolo de Redis (RESP2) sobre sockets, sin
+ * dependencias externas. Es compatible con Redis 6.2+ y con Valkey, KeyDB o Dragonfly.
+ * Las órdenes usan un pool de conexiones de hasta {@code poolSize} conexiones ociosas; las
+ * suscripciones usan una conexión dedicada, atendida por un hilo virtual que se reconecta
+ * tras un fallo. Tras un error de conexión las órdenes fallan de inmediato durante
+ * {@code retryInterval}, para que un servidor caído no añada su timeout a cada petición.
+ * <p>
+ * Limitaciones: conexión TCP en claro a un único nodo (sin TLS, Sentinel ni Cluster) y
+ * sólo RESP2, con autenticación por contraseña ({@code AUTH}). Sirve para un Redis o Valkey
+ * en la misma red privada; los servicios gestionados que exigen TLS no están soportados
+ * (ver {@code SharedCacheConfig}).
+ */
+@Slf4j
+public class RedisCacheBackend implements SharedCacheBackend {
+
+    private final String host;
+    private final int port;
+    private final String password;
+    private final int timeoutMillis;
+    private final long retryIntervalNanos;
+
+    private final ArrayBlockingQueue<Connection> idle;
+    private final ConcurrentHashMap<String, Consumer<String>> subscriptions = new ConcurrentHashMap<>();
+    private final ReentrantLock subscriberLock = new ReentrantLock();
+    private Thread subscriber;
+    private volatile Connection subscriberConnection;
+
+    private volatile long unavailableUntil;
+    private volatile boolean closed;
+
+    public RedisCacheBackend(String host, int port, String password, Duration timeout, int poolSize, Duration retryInterval) {
+        this.host = host;
+        this.port = port;
+        this.password = password == null || password.isEmpty() ? null : password;
+        this.timeoutMillis = (int) timeout.toMillis();
+        this.retryIntervalNanos = retryInterval.toNanos();
+        this.idle = new ArrayBlockingQueue<>(poolSize);
+    }
+
+    @Override
+    public Optional<byte[]> get(String key) {
+        return Optional.ofNullable((byte[]) execute("GET", key));
+    }
+
+    @Override
+    public Optional<byte[]> getAndSet(String key, byte[] value, Duration ttl) {
+        return Optional.ofNullable((byte[]) execute("SET", key, value, "PX", String.valueOf(ttl.toMillis()), "GET"));
+    }
+
+    @Override
+    public void delete(String key) {
+        execute("DEL", key);
+    }
+
+    @Override
+    public void publish(String channel, String message) {
+        execute("PUBLISH", channel, message);
+    }
+
+    @Override
+    public void subscribe(String channel, Consumer<String> listener) {
+        subscriptions.put(channel, listener);
+        subscriberLock.lock();
+        try {
+            if (subscriber == null) {
+                subscriber = Thread.ofVirtual().name("shared-cache-subscriber").start(this::listen);
+                return;
+            }
+        } finally {
+            subscriberLock.unlock();
+        }
+        Connection connection = subscriberConnection;
+        if (connection != null) {
+            try {
+                connection.send("SUBSCRIBE", channel);
+            } catch (IOException ex) {
+                // El hilo suscriptor detecta la desconexión y se vuelve a suscribir a todos los canales.
+                log.debug("No se pudo suscribir al canal {}: {}", channel, ex.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        Connection connection = subscriberConnection;
+        if (connection != null) {
+            connection.close();
+        }
+        Connection pooled;
+        while ((pooled = idle.poll()) != null) {
+            pooled.close();
+        }
+    }
+
+    /**
+     * Ejecuta la orden en una conexión del pool. Si una conexión reutilizada falla (por
+     * ejemplo, porque el servidor se reinició) se reintenta una vez con una nueva. Una
+     * conexión que falla por cualquier motivo, incluida una respuesta que no se pudo
+     * interpretar, se cierra: su flujo puede haber quedado a mitad de una respuesta.
+     */
+    private Object execute(Object... command) {
+        if (System.nanoTime() < unavailableUntil) {
+            throw new UncheckedIOException(new ConnectException("La caché compartida no está disponible"));
+        }
+        Connection pooled = idle.poll();
+        if (pooled != null) {
+            try {
+                return complete(pooled, call(pooled, command));
+            } catch (IOException ex) {
+                // La conexión reutilizada ya está cerrada; se reintenta con una nueva.
+            }
+        }
+        try {
+            Connection connection = new Connection();
+            return complete(connection, call(connection, command));
+        } catch (IOException ex) {
+            unavailableUntil = System.nanoTime() + retryIntervalNanos;
+            throw new UncheckedIOException("Fallo al ejecutar " + command[0] + " en la caché compartida", ex);
+        }
+    }
+
+    private static Object call(Connection connection, Object... command) throws IOException {
+        try {
+            return connection.call(command);
+        } catch (IOException | RuntimeException | Error ex) {
+            connection.close();
+            throw ex;
+        }
+    }
+
+    private Object complete(Connection connection, Object reply) {
+        if (closed || !idle.offer(connection)) {
+            connection.close();
+        }
+        if (reply instanceof ErrorReply error) {
+            throw new IllegalStateException("La caché compartida rechazó la orden: " + error.message());
+        }
+        return reply;
+    }
+
+    private void listen() {
+        while (!closed) {
+            try (Connection connection = new Connection()) {
+                connection.socket.setSoTimeout(0);
+                subscriberConnection = connection;
+                if (closed) {
+                    return;
+                }
+                List<Object> command = new ArrayList<>();
+                command.add("SUBSCRIBE");
+                command.addAll(subscriptions.keySet());
+                connection.send(command.toArray());
+                while (!closed) {
+                    dispatch(connection.read());
+                }
+            } catch (IOException ex) {
+                if (!closed) {
+                    log.warn("Suscripción a la caché compartida interrumpida, se reintenta en {} ms: {}",
+                            retryIntervalNanos / 1_000_000, ex.getMessage());
+                    sleep();
+                }
+            } finally {
+                subscriberConnection = null;
+            }
+        }
+    }
+
+    private void dispatch(Object reply) {
+        if (!(reply instanceof List<?> message) || message.size() != 3 || !"message".equals(text(message.get(0)))) {
+            return;
+        }
+        Consumer<String> listener = subscriptions.get(text(message.get(1)));
+        if (listener == null) {
+            return;
+        }
+        try {
+            listener.accept(text(message.get(2)));
+        } catch (RuntimeException ex) {
+            log.warn("Error al procesar un mensaje de la caché compartida: {}", ex.getMessage());
+        }
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(Duration.ofNanos(retryIntervalNanos));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            closed = true;
+        }
+    }
+
+    private static String text(Object value) {
+        return value instanceof byte[] bytes ? new String(bytes, StandardCharsets.UTF_8) : String.valueOf(value);
+    }
+
+    private record ErrorReply(String message) {
+    }
+
+    private final class Connection implements Closeable {
+
+        private final Socket socket = new Socket();
+        private final InputStream in;
+        private final OutputStream out;
+        private final ReentrantLock writeLock = new ReentrantLock();
+
+        private Connection() throws IOException {
+            try {
+                socket.connect(new InetSocketAddress(host, port), timeoutMillis);
+                socket.setSoTimeout(timeoutMillis);
+                socket.setTcpNoDelay(true);
+                in = new BufferedInputStream(socket.getInputStream());
+                out = new BufferedOutputStream(socket.getOutputStream());
+                if (password != null && call("AUTH", password) instanceof ErrorReply error) {
+                    throw new IOException("Autenticación rechazada: " + error.message());
+                }
+            } catch (IOException | RuntimeException | Error ex) {
+                close();
+                throw ex;
+            }
+        }
+
+        private Object call(Object... command) throws IOException {
+            send(command);
+            return read();
+        }
+
+        /**
+         * Escribe la orden como array de bulk strings. Los argumentos pueden ser
+         * {@link String} (UTF-8) o {@code byte[]}.
+         */
+        private void send(Object... command) throws IOException {
+            writeLock.lock();
+            try {
+                writeLine('*', command.length);
+                for (Object argument : command) {
+                    byte[] bytes = argument instanceof byte[] raw ? raw : argument.toString().getBytes(StandardCharsets.UTF_8);
+                    writeLine('$', bytes.length);
+                    out.write(bytes);
+                    out.write('\r');
+                    out.write('\n');
+                }
+                out.flush();
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        private void writeLine(char type, int value) throws IOException {
+            out.write(type);
+            out.write(Integer.toString(value).getBytes(StandardCharsets.US_ASCII));
+            out.write('\r');
+            out.write('\n');
+        }
+
+        private Object read() throws IOException {
+            int type = in.read();
+            if (type == -1) {
+                throw new EOFException("La caché compartida cerró la conexión");
+            }
+            String line = readLine();
+            return switch (type) {
+                case '+' -> line;
+                case '-' -> new ErrorReply(line);
+                case ':' -> Long.parseLong(line);
+                case '$' -> readBulk(Integer.parseInt(line));
+                case '*' -> readArray(Integer.parseInt(line));
+                default -> throw new IOException("Respuesta RESP inesperada: " + (char) type);
+            };
+        }
+
+        private byte[] readBulk(int length) throws IOException {
+            if (length < 0) {
+                return null;
+            }
+            byte[] bytes = in.readNBytes(length);
+            if (bytes.length < length || in.read() != '\r' || in.read() != '\n') {
+                throw new EOFException("Respuesta RESP truncada");
+            }
+            return bytes;
+        }
+
+        private List<Object> readArray(int size) throws IOException {
+            if (size < 0) {
+                return null;
+            }
+            List<Object> items = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                items.add(read());
+            }
+            return items;
+        }
+
+        private String readLine() throws IOException {
+            StringBuilder line = new StringBuilder();
+            int b;
+            while ((b = in.read()) != '\r') {
+                if (b == -1) {
+                    throw new EOFException("Respuesta RESP truncada");
+                }
+                line.append((char) b);
+            }
+            if (in.read() != '\n') {
+                throw new IOException("Fin de línea RESP inválido");
+            }
+            return line.toString();
+        }
+
+        @Override
+        public void close() {
+            try {
+                socket.close();
+            } catch (IOException ex) {
+                log.debug("Error al cerrar una conexión de la caché compartida: {}", ex.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.challenge.starwars.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cuerpos JSON ya serializados (UTF-8 y, a partir de cierto tamaño, también en gzip)
+ * indexados por ETag. Como el ETag se deriva del contenido, dos valores con el mismo ETag
+ * producen los mismos bytes y la entrada nunca queda desactualizada.
+ */
+public class SerializedResponseCache {
+
+    private final ObjectMapper objectMapper;
+    private final ExpiringCache<String, SerializedBody> bodies;
+    private final int gzipMinSize;
+
+    public SerializedResponseCache(ObjectMapper objectMapper, ExpiringCache<String, SerializedBody> bodies, int gzipMinSize) {
+        this.objectMapper = objectMapper;
+        this.bodies = bodies;
+        this.gzipMinSize = gzipMinSize;
+    }
+
+    public SerializedBody get(Versioned<?> versioned) {
+        return bodies.get(versioned.etag(), etag -> serialize(versioned.value()));
+    }
+
+    public ExpiringCache<String, SerializedBody> getBodies() {
+        return bodies;
+    }
+
+    private SerializedBody serialize(Object value) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("No se pudo serializar la respuesta", ex);
+        }
+        return new SerializedBody(json, json.length >= gzipMinSize ? gzip(json) : null);
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(json.length / 4 + 32);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(json);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * @param gzip variante comprimida, o {@code null} si el cuerpo es demasiado pequeño para compensar
+     */
+    public record SerializedBody(byte[] json, byte[] gzip) {
+
+        public boolean hasGzip() {
+            return gzip != null;
+        }
+    }
+}
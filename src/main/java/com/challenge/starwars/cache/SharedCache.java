@@ -0,0 +1,187 @@
+package com.challenge.starwars.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Caché compartida entre réplicas (far cache) sobre un {@link SharedCacheBackend}. Los
+ * valores se guardan serializados bajo {@code keyPrefix + name + ":" + clave}. Cuando una
+ * escritura cambia el valor que había (o lo borra) se publica la clave en el canal
+ * {@code keyPrefix + name + ":invalidations"}, y las demás réplicas descartan su copia
+ * local (near cache) mediante {@link #onInvalidation(Consumer)}; los mensajes propios se
+ * ignoran. Un fallo del backend se registra y se trata como un fallo de caché, por lo que
+ * nunca impide responder. Si la suscripción se corta se pierden las invalidaciones de ese
+ * intervalo: la TTL de las cachés locales acota cuánto puede durar una copia desactualizada.
+ */
+@Slf4j
+public class SharedCache<V> {
+
+    private final String name;
+    private final SharedCacheBackend backend;
+    private final String keyPrefix;
+    private final String channel;
+    private final Duration ttl;
+    private final Function<? super V, byte[]> encoder;
+    private final Function<byte[], ? extends V> decoder;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder invalidationsPublished = new LongAdder();
+    private final LongAdder invalidationsReceived = new LongAdder();
+
+    private SharedCache(Builder<V> builder) {
+        this.name = Objects.requireNonNull(builder.name);
+        this.backend = Objects.requireNonNull(builder.backend);
+        this.keyPrefix = builder.keyPrefix + builder.name + ":";
+        this.channel = keyPrefix + "invalidations";
+        this.ttl = builder.ttl;
+        this.encoder = Objects.requireNonNull(builder.encoder);
+        this.decoder = Objects.requireNonNull(builder.decoder);
+    }
+
+    public static <V> Builder<V> builder(String name) {
+        return new Builder<>(name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Optional<V> get(String key) {
+        Optional<byte[]> bytes;
+        try {
+            bytes = backend.get(keyPrefix + key);
+        } catch (RuntimeException ex) {
+            failed("leer", key, ex);
+            misses.increment();
+            return Optional.empty();
+        }
+        if (bytes.isEmpty()) {
+            misses.increment();
+            return Optional.empty();
+        }
+        try {
+            V value = decoder.apply(bytes.get());
+            hits.increment();
+            return Optional.ofNullable(value);
+        } catch (RuntimeException ex) {
+            log.debug("No se pudo decodificar la entrada {} de la caché {}: {}", key, name, ex.getMessage());
+            misses.increment();
+            return Optional.empty();
+        }
+    }
+
+    public void put(String key, V value) {
+        if (value == null) {
+            return;
+        }
+        byte[] bytes = encoder.apply(value);
+        try {
+            Optional<byte[]> previous = backend.getAndSet(keyPrefix + key, bytes, ttl);
+            puts.increment();
+            if (previous.isPresent() && !Arrays.equals(previous.get(), bytes)) {
+                publishInvalidation(key);
+            }
+        } catch (RuntimeException ex) {
+            failed("escribir", key, ex);
+        }
+    }
+
+    public void invalidate(String key) {
+        try {
+            backend.delete(keyPrefix + key);
+            publishInvalidation(key);
+        } catch (RuntimeException ex) {
+            failed("invalidar", key, ex);
+        }
+    }
+
+    /**
+     * Registra la acción con la que esta réplica descarta su copia local de una clave que
+     * otra réplica modificó.
+     */
+    public void onInvalidation(Consumer<String> listener) {
+        backend.subscribe(channel, message -> {
+            int separator = message.indexOf(' ');
+            if (separator < 0 || message.substring(0, separator).equals(instanceId)) {
+                return;
+            }
+            invalidationsReceived.increment();
+            listener.accept(message.substring(separator + 1));
+        });
+    }
+
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), puts.sum(), errors.sum(),
+                invalidationsPublished.sum(), invalidationsReceived.sum());
+    }
+
+    private void publishInvalidation(String key) {
+        backend.publish(channel, instanceId + " " + key);
+        invalidationsPublished.increment();
+    }
+
+    private void failed(String operation, String key, RuntimeException ex) {
+        errors.increment();
+        log.debug("No se pudo {} la entrada {} de la caché compartida {}: {}", operation, key, name, ex.getMessage());
+    }
+
+    public record Stats(long hits, long misses, long puts, long errors,
+                        long invalidationsPublished, long invalidationsReceived) {
+
+        public double hitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 0.0 : (double) hits / requests;
+        }
+    }
+
+    public static final class Builder<V> {
+
+        private final String name;
+        private SharedCacheBackend backend;
+        private String keyPrefix = "";
+        private Duration ttl = Duration.ofHours(24);
+        private Function<? super V, byte[]> encoder;
+        private Function<byte[], ? extends V> decoder;
+
+        private Builder(String name) {
+            this.name = name;
+        }
+
+        public Builder<V> backend(SharedCacheBackend backend) {
+            this.backend = backend;
+            return this;
+        }
+
+        public Builder<V> keyPrefix(String keyPrefix) {
+            this.keyPrefix = keyPrefix;
+            return this;
+        }
+
+        public Builder<V> ttl(Duration ttl) {
+            this.ttl = ttl;
+            return this;
+        }
+
+        public Builder<V> codec(Function<? super V, byte[]> encoder, Function<byte[], ? extends V> decoder) {
+            this.encoder = encoder;
+            this.decoder = decoder;
+            return this;
+        }
+
+        public SharedCache<V> build() {
+            return new SharedCache<>(this);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.challenge.starwars.cache;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Almacén clave-valor compartido entre réplicas sobre el que se apoya {@link SharedCache}.
+ * Los valores son bytes ya serializados. Las operaciones lanzan {@link RuntimeException}
+ * si el almacén no responde; es responsabilidad del llamador degradar a un fallo de caché.
+ */
+public interface SharedCacheBackend extends AutoCloseable {
+
+    Optional<byte[]> get(String key);
+
+    /**
+     * Guarda el valor con la TTL indicada y devuelve el que había antes, si lo había.
+     */
+    Optional<byte[]> getAndSet(String key, byte[] value, Duration ttl);
+
+    void delete(String key);
+
+    void publish(String channel, String message);
+
+    /**
+     * Registra un oyente para los mensajes publicados en el canal. La suscripción se
+     * mantiene (y se restablece tras una desconexión) hasta cerrar el backend.
+     */
+    void subscribe(String channel, Consumer<String> listener);
+
+    @Override
+    void close();
+}
@@ -0,0 +1,77 @@
+package com.challenge.starwars.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+
+/**
+ * Publica en Micrometer las métricas estándar de caché de un {@link SharedCache} (el
+ * tamaño y los desalojos los gestiona el servidor y no se informan), junto con los
+ * errores del backend y las invalidaciones enviadas y recibidas.
+ */
+public class SharedCacheMetrics extends CacheMeterBinder<SharedCache<?>> {
+
+    public SharedCacheMetrics(SharedCache<?> cache) {
+        super(cache, cache.getName(), Tags.empty());
+    }
+
+    @Override
+    protected Long size() {
+        return null;
+    }
+
+    @Override
+    protected long hitCount() {
+        SharedCache<?> cache = getCache();
+        return cache == null ? 0 : cache.stats().hits();
+    }
+
+    @Override
+    protected Long missCount() {
+        SharedCache<?> cache = getCache();
+        return cache == null ? null : cache.stats().misses();
+    }
+
+    @Override
+    protected Long evictionCount() {
+        return null;
+    }
+
+    @Override
+    protected long putCount() {
+        SharedCache<?> cache = getCache();
+        return cache == null ? 0 : cache.stats().puts();
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        SharedCache<?> cache = getCache();
+        if (cache == null) {
+            return;
+        }
+
+        FunctionCounter.builder("cache.errors", cache, c -> c.stats().errors())
+                .tags(getTagsWithCacheName())
+                .description("Operaciones fallidas contra el servidor de caché compartida")
+                .register(registry);
+
+        FunctionCounter.builder("cache.invalidations", cache, c -> c.stats().invalidationsPublished())
+                .tags(getTagsWithCacheName())
+                .tag("direction", "published")
+                .description("Invalidaciones de caché local enviadas o recibidas de otras réplicas")
+                .register(registry);
+
+        FunctionCounter.builder("cache.invalidations", cache, c -> c.stats().invalidationsReceived())
+                .tags(getTagsWithCacheName())
+                .tag("direction", "received")
+                .description("Invalidaciones de caché local enviadas o recibidas de otras réplicas")
+                .register(registry);
+
+        Gauge.builder("cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .tags(getTagsWithCacheName())
+                .description("Proporción de lecturas servidas desde la caché")
+                .register(registry);
+    }
+}
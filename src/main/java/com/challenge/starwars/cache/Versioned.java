@@ -0,0 +1,38 @@
+package com.challenge.starwars.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Valor acompañado de su ETag. La etiqueta se deriva del contenido (no de la identidad
+ * del objeto ni del momento de carga), de modo que es estable entre reinicios e
+ * instancias, y se calcula una sola vez al guardar el valor en caché.
+ */
+public record Versioned<T>(T value, String etag) {
+
+    public static <T> Versioned<T> of(T value, Object... parts) {
+        return new Versioned<>(value, etag(parts));
+    }
+
+    /**
+     * ETag fuerte (entre comillas) con los primeros 128 bits del SHA-256 de las partes.
+     */
+    public static String etag(Object... parts) {
+        MessageDigest digest = sha256();
+        for (Object part : parts) {
+            digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        return "\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 no está disponible en la JVM", ex);
+        }
+    }
+}
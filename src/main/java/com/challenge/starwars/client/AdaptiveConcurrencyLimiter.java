@@ -0,0 +1,188 @@
+package com.challenge.starwars.client;
+
+import com.challenge.starwars.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Límite de concurrencia adaptativo para las peticiones de personajes. El límite se ajusta
+ * con un algoritmo de gradiente sobre el RTT de las llamadas a SWAPI: se compara una media
+ * corta con una de largo plazo y, si la latencia reciente crece por encima de
+ * {@code rtt-tolerance}, el límite baja en proporción; si se mantiene, sube como mucho
+ * {@code sqrt(limit)} por muestra. Los errores de SWAPI reducen el límite de forma
+ * multiplicativa. Las peticiones que no caben se rechazan al instante con 503, y una parte
+ * del límite ({@code reserved-share}) sólo la pueden ocupar las servidas desde caché.
+ */
+@Component
+public class AdaptiveConcurrencyLimiter implements MeterBinder {
+
+    private static final double SHORT_RTT_ALPHA = 2.0 / (10 + 1);
+    private static final double LONG_RTT_ALPHA = 2.0 / (600 + 1);
+    private static final double DROP_BACKOFF = 0.9;
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double reservedShare;
+    private final double rttTolerance;
+    private final double smoothing;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+    private double shortRttNanos;
+    private double longRttNanos;
+
+    private final LongAdder rejectedCached = new LongAdder();
+    private final LongAdder rejectedUpstream = new LongAdder();
+    private final LongAdder drops = new LongAdder();
+
+    public AdaptiveConcurrencyLimiter(@Value("${swapi.concurrency-limit.initial-limit:20}") int initialLimit,
+                                      @Value("${swapi.concurrency-limit.min-limit:4}") int minLimit,
+                                      @Value("${swapi.concurrency-limit.max-limit:200}") int maxLimit,
+                                      @Value("${swapi.concurrency-limit.reserved-share:0.1}") double reservedShare,
+                                      @Value("${swapi.concurrency-limit.rtt-tolerance:1.5}") double rttTolerance,
+                                      @Value("${swapi.concurrency-limit.smoothing:0.2}") double smoothing) {
+        if (minLimit <= 0 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Los límites de concurrencia deben cumplir 0 < min-limit <= max-limit");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.reservedShare = reservedShare;
+        this.rttTolerance = rttTolerance;
+        this.smoothing = smoothing;
+        this.limit = Math.clamp(initialLimit, minLimit, maxLimit);
+    }
+
+    /**
+     * Ejecuta la llamada si cabe dentro del límite actual. Las peticiones que requieren
+     * SWAPI no pueden ocupar la parte reservada a las que se resuelven desde caché.
+     */
+    public <T> T execute(boolean cacheServed, Supplier<T> call) {
+        acquire(cacheServed);
+        try {
+            return call.get();
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    /**
+     * Registra el RTT de una llamada a SWAPI completada y recalcula el límite.
+     */
+    public void onSample(long rttNanos) {
+        lock.lock();
+        try {
+            if (shortRttNanos == 0) {
+                shortRttNanos = rttNanos;
+                longRttNanos = rttNanos;
+                return;
+            }
+            shortRttNanos += SHORT_RTT_ALPHA * (rttNanos - shortRttNanos);
+            longRttNanos += LONG_RTT_ALPHA * (rttNanos - longRttNanos);
+
+            // Tras un periodo prolongado de saturación la media larga queda inflada; se
+            // acelera su caída para no tardar cientos de muestras en volver a crecer.
+            if (longRttNanos > shortRttNanos * 2) {
+                longRttNanos *= 0.95;
+            }
+
+            double current = limit;
+            double gradient = Math.clamp(rttTolerance * longRttNanos / shortRttNanos, 0.5, 1.0);
+            double target = current * gradient + Math.sqrt(current);
+
+            // Si ni siquiera se usa la mitad del límite la latencia no dice nada sobre
+            // capacidad adicional: sólo se permite bajar.
+            if (inFlight.get() < current / 2) {
+                target = Math.min(target, current);
+            }
+            setLimit(current * (1 - smoothing) + target * smoothing);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Registra una llamada a SWAPI fallida por sobrecarga (5xx, timeout o red).
+     */
+    public void onDrop() {
+        drops.increment();
+        lock.lock();
+        try {
+            setLimit(limit * DROP_BACKOFF);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        Gauge.builder("people.concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Límite de concurrencia adaptativo de las peticiones de personajes")
+                .register(registry);
+
+        Gauge.builder("people.concurrency.in.flight", this, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Peticiones de personajes en curso")
+                .register(registry);
+
+        Gauge.builder("people.concurrency.rtt", this, limiter -> limiter.shortRttNanos / 1_000_000)
+                .baseUnit("milliseconds")
+                .description("Media reciente del RTT de las llamadas a SWAPI")
+                .register(registry);
+
+        FunctionCounter.builder("people.concurrency.rejected", rejectedCached, LongAdder::sum)
+                .tag("source", "cache")
+                .description("Peticiones de personajes rechazadas con 503 por superar el límite")
+                .register(registry);
+
+        FunctionCounter.builder("people.concurrency.rejected", rejectedUpstream, LongAdder::sum)
+                .tag("source", "swapi")
+                .description("Peticiones de personajes rechazadas con 503 por superar el límite")
+                .register(registry);
+
+        FunctionCounter.builder("people.concurrency.drops", drops, LongAdder::sum)
+                .description("Llamadas a SWAPI fallidas que redujeron el límite")
+                .register(registry);
+    }
+
+    private void acquire(boolean cacheServed) {
+        double current = limit;
+        int capacity = cacheServed
+                ? (int) current
+                : Math.max(1, (int) current - (int) Math.ceil(current * reservedShare));
+
+        while (true) {
+            int active = inFlight.get();
+            if (active >= capacity) {
+                (cacheServed ? rejectedCached : rejectedUpstream).increment();
+                throw new ServiceUnavailableException("El servicio está saturado. Por favor, intente más tarde", RETRY_AFTER);
+            }
+            if (inFlight.compareAndSet(active, active + 1)) {
+                return;
+            }
+        }
+    }
+
+    private void setLimit(double value) {
+        limit = Math.clamp(value, minLimit, maxLimit);
+    }
+}
@@ -0,0 +1,74 @@
+package com.challenge.starwars.client;
+
+import com.challenge.starwars.exception.ServiceUnavailableException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Límite de concurrencia de las llamadas salientes a SWAPI. Con hilos virtuales el
+ * número de peticiones entrantes deja de estar acotado por el pool de Tomcat, así que
+ * este semáforo evita que un SWAPI lento acumule llamadas sin límite: si no hay permiso
+ * disponible dentro de {@code swapi.bulkhead.max-wait} la llamada se rechaza con 503.
+ */
+@Component
+public class SwapiBulkhead {
+
+    private final Semaphore permits;
+    private final int maxConcurrentCalls;
+    private final Duration maxWait;
+
+    private final LongAdder rejected = new LongAdder();
+
+    public SwapiBulkhead(@Value("${swapi.bulkhead.max-concurrent-calls:32}") int maxConcurrentCalls,
+                         @Value("${swapi.bulkhead.max-wait:PT0.5S}") Duration maxWait) {
+        this.permits = new Semaphore(maxConcurrentCalls, true);
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.maxWait = maxWait;
+    }
+
+    public <T> T execute(Supplier<T> call) {
+        acquire();
+        try {
+            return call.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    public int getMaxConcurrentCalls() {
+        return maxConcurrentCalls;
+    }
+
+    public int getActiveCalls() {
+        return maxConcurrentCalls - permits.availablePermits();
+    }
+
+    public int getQueuedCalls() {
+        return permits.getQueueLength();
+    }
+
+    public long getRejectedCalls() {
+        return rejected.sum();
+    }
+
+    private void acquire() {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+
+        if (!acquired) {
+            rejected.increment();
+            throw new ServiceUnavailableException("El servicio de Star Wars está saturado. Por favor, intente más tarde", maxWait);
+        }
+    }
+}
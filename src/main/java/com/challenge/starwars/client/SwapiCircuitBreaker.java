@@ -0,0 +1,246 @@
+package com.challenge.starwars.client;
+
+import com.challenge.starwars.exception.ResourceNotFoundException;
+import com.challenge.starwars.exception.ServiceUnavailableException;
+import com.challenge.starwars.exception.SwapiUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker de las llamadas a SWAPI basado en una ventana deslizante de las
+ * últimas llamadas. Al superar el porcentaje de fallos se abre y rechaza de inmediato
+ * durante {@code swapi.circuit-breaker.open-duration}; después deja pasar unas pocas
+ * llamadas de prueba (semiabierto) y vuelve a cerrarse si todas tienen éxito.
+ * Cualquier error cuenta como fallo salvo {@link ResourceNotFoundException}, porque un 404
+ * demuestra que SWAPI responde, y los rechazos locales ({@link ServiceUnavailableException}
+ * del bulkhead), que no dicen nada de SWAPI. Cada llamada recuerda el estado que la admitió:
+ * si el circuito cambia mientras está en curso, su resultado se descarta.
+ */
+@Slf4j
+@Component
+public class SwapiCircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openDurationNanos;
+    private final int halfOpenCalls;
+    private final LongSupplier nanoTime;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final boolean[] outcomes;
+    private int position;
+    private int recorded;
+    private int failures;
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenInFlight;
+    private int halfOpenSuccesses;
+    private long generation;
+
+    private final Map<State, LongAdder> transitions = new EnumMap<>(State.class);
+    private final LongAdder rejected = new LongAdder();
+
+    @Autowired
+    public SwapiCircuitBreaker(@Value("${swapi.circuit-breaker.window-size:20}") int windowSize,
+                               @Value("${swapi.circuit-breaker.minimum-calls:10}") int minimumCalls,
+                               @Value("${swapi.circuit-breaker.failure-rate-threshold:50}") double failureRateThreshold,
+                               @Value("${swapi.circuit-breaker.open-duration:PT30S}") Duration openDuration,
+                               @Value("${swapi.circuit-breaker.half-open-calls:3}") int halfOpenCalls) {
+        this(windowSize, minimumCalls, failureRateThreshold, openDuration, halfOpenCalls, System::nanoTime);
+    }
+
+    SwapiCircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold,
+                        Duration openDuration, int halfOpenCalls, LongSupplier nanoTime) {
+        this.windowSize = windowSize;
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+        this.halfOpenCalls = halfOpenCalls;
+        this.nanoTime = nanoTime;
+        this.outcomes = new boolean[windowSize];
+        for (State target : State.values()) {
+            transitions.put(target, new LongAdder());
+        }
+    }
+
+    public <T> T execute(Supplier<T> call) {
+        long permit = acquirePermission();
+
+        try {
+            T result = call.get();
+            onSuccess(permit);
+            return result;
+        } catch (ResourceNotFoundException ex) {
+            onSuccess(permit);
+            throw ex;
+        } catch (SwapiUnavailableException ex) {
+            onFailure(permit);
+            throw ex;
+        } catch (ServiceUnavailableException ex) {
+            onIgnored(permit);
+            throw ex;
+        } catch (RuntimeException | Error ex) {
+            onFailure(permit);
+            throw ex;
+        }
+    }
+
+    public State getState() {
+        lock.lock();
+        try {
+            return currentState(nanoTime.getAsLong());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getTransitions(State target) {
+        return transitions.get(target).sum();
+    }
+
+    public long getRejectedCalls() {
+        return rejected.sum();
+    }
+
+    public void reset() {
+        lock.lock();
+        try {
+            transitionTo(State.CLOSED, nanoTime.getAsLong());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return la generación del estado que admite la llamada, con la que se atribuye su resultado
+     */
+    private long acquirePermission() {
+        long now = nanoTime.getAsLong();
+        long retryAfterNanos;
+
+        lock.lock();
+        try {
+            State current = currentState(now);
+            if (current == State.CLOSED) {
+                return generation;
+            }
+            if (current == State.HALF_OPEN && halfOpenInFlight + halfOpenSuccesses < halfOpenCalls) {
+                halfOpenInFlight++;
+                return generation;
+            }
+            retryAfterNanos = current == State.OPEN ? openedAt + openDurationNanos - now : openDurationNanos;
+        } finally {
+            lock.unlock();
+        }
+
+        rejected.increment();
+        throw new ServiceUnavailableException(
+                "El servicio de Star Wars no está disponible temporalmente. Por favor, intente más tarde",
+                Duration.ofNanos(Math.max(retryAfterNanos, 0)));
+    }
+
+    private void onSuccess(long permit) {
+        lock.lock();
+        try {
+            if (permit != generation) {
+                return;
+            }
+            if (state == State.HALF_OPEN) {
+                halfOpenInFlight--;
+                halfOpenSuccesses++;
+                if (halfOpenSuccesses >= halfOpenCalls) {
+                    transitionTo(State.CLOSED, nanoTime.getAsLong());
+                }
+                return;
+            }
+            if (state == State.CLOSED) {
+                record(false);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onFailure(long permit) {
+        lock.lock();
+        try {
+            if (permit != generation) {
+                return;
+            }
+            long now = nanoTime.getAsLong();
+            if (state == State.HALF_OPEN) {
+                transitionTo(State.OPEN, now);
+                return;
+            }
+            if (state == State.CLOSED) {
+                record(true);
+                if (recorded >= minimumCalls && failures * 100.0 / recorded >= failureRateThreshold) {
+                    transitionTo(State.OPEN, now);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onIgnored(long permit) {
+        lock.lock();
+        try {
+            if (permit == generation && state == State.HALF_OPEN) {
+                halfOpenInFlight--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private State currentState(long now) {
+        if (state == State.OPEN && now - openedAt >= openDurationNanos) {
+            transitionTo(State.HALF_OPEN, now);
+        }
+        return state;
+    }
+
+    private void record(boolean failure) {
+        if (recorded == windowSize && outcomes[position]) {
+            failures--;
+        }
+        outcomes[position] = failure;
+        if (failure) {
+            failures++;
+        }
+        position = (position + 1) % windowSize;
+        recorded = Math.min(recorded + 1, windowSize);
+    }
+
+    private void transitionTo(State target, long now) {
+        State previous = state;
+        state = target;
+        position = 0;
+        recorded = 0;
+        failures = 0;
+        halfOpenInFlight = 0;
+        halfOpenSuccesses = 0;
+        generation++;
+        if (target == State.OPEN) {
+            openedAt = now;
+        }
+        if (previous != target) {
+            transitions.get(target).increment();
+            log.warn("Circuit breaker de SWAPI: {} -> {}", previous, target);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.challenge.starwars.client;
+
+import com.challenge.starwars.cache.SingleFlight;
+import com.challenge.starwars.dto.external.SwapiPeoplePageResponse;
+import com.challenge.starwars.dto.external.SwapiPeopleSearchResponse;
+import com.challenge.starwars.dto.external.SwapiPeopleSingleResponse;
+import com.challenge.starwars.exception.ResourceNotFoundException;
+import com.challenge.starwars.exception.SwapiUnavailableException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+
+import java.util.function.Supplier;
+
+/**
+ * Punto único de acceso HTTP a SWAPI. Concentra las llamadas remotas para que el
+ * servicio y los procesos de sincronización compartan el mismo manejo de errores.
+ * Las peticiones concurrentes al mismo recurso comparten una única llamada en curso, que
+ * se reintenta ({@link SwapiRetry}) a través del {@link SwapiCircuitBreaker} y del
+ * {@link SwapiBulkhead}. El RTT de cada llamada alimenta el {@link AdaptiveConcurrencyLimiter}.
+ * La consulta de un personaje puede además cubrirse con una segunda llamada ({@link SwapiHedging}).
+ * En las tres consultas sólo un 404 significa que el recurso no existe; cualquier otro
+ * error (429, 408, 401, 403, 5xx) es un fallo de SWAPI y nunca se recuerda como inexistente.
+ */
+@Component
+public class SwapiClient {
+
+    private final RestClient restClient;
+
+    private final SwapiBulkhead bulkhead;
+
+    private final SwapiCircuitBreaker circuitBreaker;
+
+    private final SwapiRetry retry;
+
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    private final SwapiHedging hedging;
+
+    private final SingleFlight<String, Object> singleFlight = new SingleFlight<>();
+
+    public SwapiClient(@Qualifier("swapiRestClient") RestClient restClient,
+                       SwapiBulkhead bulkhead,
+                       SwapiCircuitBreaker circuitBreaker,
+                       SwapiRetry retry,
+                       AdaptiveConcurrencyLimiter concurrencyLimiter,
+                       SwapiHedging hedging) {
+        this.restClient = restClient;
+        this.bulkhead = bulkhead;
+        this.circuitBreaker = circuitBreaker;
+        this.retry = retry;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.hedging = hedging;
+    }
+
+    public SwapiPeopleSingleResponse getPerson(String id) {
+        return coalesce("person:" + id, true, () -> fetchPerson(id));
+    }
+
+    public SwapiPeoplePageResponse getPeoplePage(int page, int limit) {
+        return coalesce("page:" + page + ":" + limit, false, () -> fetchPeoplePage(page, limit));
+    }
+
+    public SwapiPeopleSearchResponse searchPeople(String name) {
+        String trimmed = name.trim();
+        return coalesce("search:" + trimmed, false, () -> fetchSearch(trimmed));
+    }
+
+    public SingleFlight<String, Object> getSingleFlight() {
+        return singleFlight;
+    }
+
+    public SwapiHedging getHedging() {
+        return hedging;
+    }
+
+    /**
+     * Cada intento (y cada cobertura) pasa por separado por el circuit breaker y el bulkhead.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T coalesce(String key, boolean hedged, Supplier<T> call) {
+        Supplier<T> attempt = () -> circuitBreaker.execute(() -> bulkhead.execute(() -> exchange(call)));
+        Supplier<T> guarded = hedged ? () -> hedging.execute(attempt) : attempt;
+        return (T) singleFlight.execute(key, () -> retry.execute(guarded));
+    }
+
+    private <T> T exchange(Supplier<T> call) {
+        long start = System.nanoTime();
+        try {
+            T response = call.get();
+            concurrencyLimiter.onSample(System.nanoTime() - start);
+            return response;
+        } catch (ResourceNotFoundException ex) {
+            concurrencyLimiter.onSample(System.nanoTime() - start);
+            throw ex;
+        } catch (SwapiUnavailableException ex) {
+            concurrencyLimiter.onDrop();
+            throw ex;
+        } catch (ResourceAccessException ex) {
+            concurrencyLimiter.onDrop();
+            throw new SwapiUnavailableException("El servicio de Star Wars no está disponible");
+        }
+    }
+
+    private SwapiPeopleSingleResponse fetchPerson(String id) {
+        return restClient.get()
+                .uri("/people/{id}", id)
+                .retrieve()
+                .onStatus(status -> status.isSameCodeAs(HttpStatus.NOT_FOUND), (request, response) -> {
+                    throw new ResourceNotFoundException("No se encontró el personaje con ID: " + id);
+                })
+                .onStatus(status -> status.isError(), (request, response) -> {
+                    throw new SwapiUnavailableException("El servicio de Star Wars no está disponible");
+                })
+                .body(SwapiPeopleSingleResponse.class);
+    }
+
+    private SwapiPeoplePageResponse fetchPeoplePage(int page, int limit) {
+        return restClient.get()
+                .uri(buildPaginationUrl(page, limit))
+                .retrieve()
+                .onStatus(status -> status.isSameCodeAs(HttpStatus.NOT_FOUND), (request, response) -> {
+                    throw new ResourceNotFoundException("No se encontró la página " + page + " de personajes");
+                })
+                .onStatus(status -> status.isError(), (request, response) -> {
+                    throw new SwapiUnavailableException("Error al recuperar lista paginada de Star Wars");
+                })
+                .body(SwapiPeoplePageResponse.class);
+    }
+
+    private SwapiPeopleSearchResponse fetchSearch(String name) {
+        return restClient.get()
+                .uri("/people/?name={name}", name)
+                .retrieve()
+                .onStatus(status -> status.isSameCodeAs(HttpStatus.NOT_FOUND), (request, response) -> {
+                    throw new ResourceNotFoundException("No se encontraron personajes con el nombre: " + name);
+                })
+                .onStatus(status -> status.isError(), (request, response) -> {
+                    throw new SwapiUnavailableException("Error en la búsqueda por nombre en la API externa");
+                })
+                .body(SwapiPeopleSearchResponse.class);
+    }
+
+    private String buildPaginationUrl(int page, int limit) {
+        return String.format("/people?page=%d&limit=%d", page, limit);
+    }
+}
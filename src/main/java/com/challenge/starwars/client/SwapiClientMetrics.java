@@ -0,0 +1,95 @@
+package com.challenge.starwars.client;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.AllArgsConstructor;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * Métricas del cliente de SWAPI publicadas en Micrometer.
+ */
+@Component
+@AllArgsConstructor
+public class SwapiClientMetrics implements MeterBinder {
+
+    private final SwapiClient swapiClient;
+
+    private final SwapiBulkhead swapiBulkhead;
+
+    private final SwapiCircuitBreaker swapiCircuitBreaker;
+
+    private final SwapiRetry swapiRetry;
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        var singleFlight = swapiClient.getSingleFlight();
+
+        FunctionCounter.builder("swapi.requests.coalesced", singleFlight, flight -> flight.getExecutions())
+                .tag("result", "executed")
+                .description("Llamadas a SWAPI ejecutadas por el primer invocador de un recurso")
+                .register(registry);
+
+        FunctionCounter.builder("swapi.requests.coalesced", singleFlight, flight -> flight.getCollapsed())
+                .tag("result", "collapsed")
+                .description("Llamadas a SWAPI que reutilizaron una petición idéntica en curso")
+                .register(registry);
+
+        Gauge.builder("swapi.requests.in.flight", singleFlight, flight -> flight.getInFlight())
+                .description("Recursos distintos de SWAPI con una petición en curso")
+                .register(registry);
+
+        Gauge.builder("swapi.bulkhead.active", swapiBulkhead, SwapiBulkhead::getActiveCalls)
+                .description("Llamadas a SWAPI en ejecución dentro del bulkhead")
+                .register(registry);
+
+        Gauge.builder("swapi.bulkhead.queued", swapiBulkhead, SwapiBulkhead::getQueuedCalls)
+                .description("Llamadas a SWAPI esperando un permiso del bulkhead")
+                .register(registry);
+
+        Gauge.builder("swapi.bulkhead.max", swapiBulkhead, SwapiBulkhead::getMaxConcurrentCalls)
+                .register(registry);
+
+        FunctionCounter.builder("swapi.bulkhead.rejected", swapiBulkhead, SwapiBulkhead::getRejectedCalls)
+                .description("Llamadas a SWAPI rechazadas por falta de permisos")
+                .register(registry);
+
+        Gauge.builder("swapi.circuit.state", swapiCircuitBreaker, breaker -> breaker.getState().ordinal())
+                .description("Estado del circuit breaker de SWAPI: 0 cerrado, 1 abierto, 2 semiabierto")
+                .register(registry);
+
+        for (SwapiCircuitBreaker.State state : SwapiCircuitBreaker.State.values()) {
+            FunctionCounter.builder("swapi.circuit.transitions", swapiCircuitBreaker, breaker -> breaker.getTransitions(state))
+                    .tag("to", state.name().toLowerCase())
+                    .description("Transiciones del circuit breaker de SWAPI")
+                    .register(registry);
+        }
+
+        FunctionCounter.builder("swapi.circuit.rejected", swapiCircuitBreaker, SwapiCircuitBreaker::getRejectedCalls)
+                .description("Llamadas rechazadas sin contactar a SWAPI por circuito abierto")
+                .register(registry);
+
+        FunctionCounter.builder("swapi.retries", swapiRetry, SwapiRetry::getRetries)
+                .description("Reintentos de llamadas a SWAPI")
+                .register(registry);
+
+        SwapiHedging hedging = swapiClient.getHedging();
+
+        FunctionCounter.builder("swapi.hedges", hedging, SwapiHedging::getHedgesSent)
+                .tag("result", "sent")
+                .description("Llamadas de cobertura enviadas a SWAPI")
+                .register(registry);
+
+        FunctionCounter.builder("swapi.hedges", hedging, SwapiHedging::getHedgesWon)
+                .tag("result", "won")
+                .description("Llamadas de cobertura que respondieron antes que la original")
+                .register(registry);
+
+        Gauge.builder("swapi.hedges.delay", hedging, h -> h.getHedgeDelay() == null ? Double.NaN : h.getHedgeDelay().toMillis())
+                .baseUnit("milliseconds")
+                .description("Espera antes de enviar una llamada de cobertura")
+                .register(registry);
+    }
+}
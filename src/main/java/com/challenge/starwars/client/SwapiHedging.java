@@ -0,0 +1,205 @@
+package com.challenge.starwars.client;
+
+import com.challenge.starwars.exception.SwapiUnavailableException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Peticiones de cobertura (hedging) hacia SWAPI: si la primera llamada no respondió en el
+ * percentil {@code swapi.hedging.percentile} de las latencias recientes, se lanza una
+ * segunda idéntica y se usa la primera respuesta correcta. Las coberturas consumen un
+ * presupuesto que sólo se repone con las peticiones normales ({@code budget-ratio} por
+ * petición), de modo que nunca superan esa fracción del tráfico. La llamada perdedora no se
+ * interrumpe; su resultado se descarta.
+ */
+@Component
+public class SwapiHedging implements AutoCloseable {
+
+    private static final long CREDIT_UNIT = 1_000;
+    private static final int RECOMPUTE_EVERY = 16;
+
+    private final boolean enabled;
+    private final double percentile;
+    private final long minDelayNanos;
+    private final int minSamples;
+    private final long creditPerRequest;
+    private final long maxCredit;
+
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("swapi-hedge-", 0).factory());
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final long[] samples;
+    private int nextSample;
+    private int sampleCount;
+    private volatile long hedgeDelayNanos = -1;
+
+    private final AtomicLong credit = new AtomicLong();
+    private final LongAdder hedgesSent = new LongAdder();
+    private final LongAdder hedgesWon = new LongAdder();
+
+    public SwapiHedging(@Value("${swapi.hedging.enabled:false}") boolean enabled,
+                        @Value("${swapi.hedging.percentile:0.95}") double percentile,
+                        @Value("${swapi.hedging.min-delay:PT0.05S}") Duration minDelay,
+                        @Value("${swapi.hedging.window-size:256}") int windowSize,
+                        @Value("${swapi.hedging.min-samples:20}") int minSamples,
+                        @Value("${swapi.hedging.budget-ratio:0.05}") double budgetRatio,
+                        @Value("${swapi.hedging.max-burst:5}") int maxBurst) {
+        this.enabled = enabled;
+        this.percentile = percentile;
+        this.minDelayNanos = minDelay.toNanos();
+        this.samples = new long[Math.max(1, windowSize)];
+        this.minSamples = Math.clamp(minSamples, 1, samples.length);
+        this.creditPerRequest = Math.round(budgetRatio * CREDIT_UNIT);
+        this.maxCredit = (long) Math.max(1, maxBurst) * CREDIT_UNIT;
+    }
+
+    public <T> T execute(Supplier<T> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        deposit();
+
+        long delay = hedgeDelayNanos;
+        if (delay < 0) {
+            return timed(call);
+        }
+
+        CompletableFuture<T> primary = CompletableFuture.supplyAsync(() -> timed(call), executor);
+        try {
+            return primary.get(delay, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            if (!tryWithdraw()) {
+                return await(primary);
+            }
+        } catch (ExecutionException ex) {
+            throw rethrow(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SwapiUnavailableException("Se interrumpió la llamada al servicio de Star Wars");
+        }
+
+        hedgesSent.increment();
+        CompletableFuture<T> hedge = CompletableFuture.supplyAsync(() -> timed(call), executor);
+        return await(firstSuccessful(primary, hedge));
+    }
+
+    /**
+     * Demora actual antes de lanzar una cobertura, o {@code null} si todavía no hay
+     * suficientes muestras para estimarla.
+     */
+    public Duration getHedgeDelay() {
+        long delay = hedgeDelayNanos;
+        return delay < 0 ? null : Duration.ofNanos(delay);
+    }
+
+    public long getHedgesSent() {
+        return hedgesSent.sum();
+    }
+
+    public long getHedgesWon() {
+        return hedgesWon.sum();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private <T> T timed(Supplier<T> call) {
+        long start = System.nanoTime();
+        T result = call.get();
+        record(System.nanoTime() - start);
+        return result;
+    }
+
+    private void record(long latencyNanos) {
+        lock.lock();
+        try {
+            samples[nextSample] = latencyNanos;
+            nextSample = (nextSample + 1) % samples.length;
+            sampleCount = Math.min(sampleCount + 1, samples.length);
+
+            if (sampleCount >= minSamples && (sampleCount < samples.length || nextSample % RECOMPUTE_EVERY == 0)) {
+                long[] window = Arrays.copyOf(samples, sampleCount);
+                Arrays.sort(window);
+                int rank = (int) Math.min(window.length - 1, Math.ceil(percentile * window.length) - 1);
+                hedgeDelayNanos = Math.max(minDelayNanos, window[Math.max(0, rank)]);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void deposit() {
+        credit.getAndUpdate(current -> Math.min(maxCredit, current + creditPerRequest));
+    }
+
+    private boolean tryWithdraw() {
+        while (true) {
+            long current = credit.get();
+            if (current < CREDIT_UNIT) {
+                return false;
+            }
+            if (credit.compareAndSet(current, current - CREDIT_UNIT)) {
+                return true;
+            }
+        }
+    }
+
+    private <T> CompletableFuture<T> firstSuccessful(CompletableFuture<T> primary, CompletableFuture<T> hedge) {
+        CompletableFuture<T> first = new CompletableFuture<>();
+        primary.whenComplete((value, error) -> {
+            if (error == null) {
+                first.complete(value);
+            } else if (hedge.isCompletedExceptionally()) {
+                first.completeExceptionally(error);
+            }
+        });
+        hedge.whenComplete((value, error) -> {
+            if (error == null) {
+                if (first.complete(value)) {
+                    hedgesWon.increment();
+                }
+            } else if (primary.isCompletedExceptionally()) {
+                first.completeExceptionally(error);
+            }
+        });
+        return first;
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            throw rethrow(ex.getCause());
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof CompletionException nested && nested.getCause() != null) {
+            cause = nested.getCause();
+        }
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new SwapiUnavailableException("El servicio de Star Wars no está disponible");
+    }
+}
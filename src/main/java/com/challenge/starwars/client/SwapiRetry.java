@@ -0,0 +1,63 @@
+package com.challenge.starwars.client;
+
+import com.challenge.starwars.exception.SwapiUnavailableException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Reintentos acotados de las llamadas a SWAPI con backoff exponencial y jitter completo
+ * (espera aleatoria entre 0 y el tope del intento), para no sincronizar a los clientes
+ * que reintentan. Sólo se reintentan los fallos de SWAPI; un circuito abierto o un
+ * bulkhead saturado se propagan de inmediato.
+ */
+@Component
+public class SwapiRetry {
+
+    private final int maxAttempts;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+
+    private final LongAdder retries = new LongAdder();
+
+    public SwapiRetry(@Value("${swapi.retry.max-attempts:3}") int maxAttempts,
+                      @Value("${swapi.retry.initial-backoff:PT0.1S}") Duration initialBackoff,
+                      @Value("${swapi.retry.max-backoff:PT2S}") Duration maxBackoff) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffNanos = initialBackoff.toNanos();
+        this.maxBackoffNanos = maxBackoff.toNanos();
+    }
+
+    public <T> T execute(Supplier<T> call) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return call.get();
+            } catch (SwapiUnavailableException ex) {
+                if (attempt >= maxAttempts) {
+                    throw ex;
+                }
+                retries.increment();
+                backoff(attempt, ex);
+            }
+        }
+    }
+
+    public long getRetries() {
+        return retries.sum();
+    }
+
+    private void backoff(int attempt, SwapiUnavailableException cause) {
+        long ceiling = Math.min(maxBackoffNanos, initialBackoffNanos << Math.min(attempt - 1, 30));
+        long delay = ceiling <= 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+        try {
+            Thread.sleep(Duration.ofNanos(delay));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
+    }
+}
@@ -1,17 +1,28 @@
 package com.challenge.starwars.config;
 
+import com.challenge.starwars.cache.ExpiringCache;
+import com.challenge.starwars.entity.User;
 import com.challenge.starwars.repository.UserRepository;
+import com.challenge.starwars.security.BCryptCalibration;
+import com.challenge.starwars.security.BoundedPasswordEncoder;
+import com.challenge.starwars.security.CalibratedBCryptPasswordEncoder;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
+
+@Slf4j
 @Configuration
 @RequiredArgsConstructor
 public class ApplicationConfig {
@@ -20,14 +31,53 @@ public class ApplicationConfig {
     private final UserRepository userRepository;
 
     @Bean
-    public UserDetailsService userDetailsService() {
-        return username -> userRepository.findByUsername(username).
-                orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado"));
+    public UserDetailsService userDetailsService(ExpiringCache<String, User> userDetailsCache) {
+        return username -> userDetailsCache.get(username, key -> userRepository.findByUsername(key).
+                orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado")));
     }
 
+    /**
+     * BCrypt con el coste calibrado al arrancar (o fijo si {@code security.password-hashing.cost}
+     * es positivo), ejecutado en un pool acotado. Con {@code threads=0} se usa la mitad de
+     * los núcleos disponibles. Los hashes guardados con otro coste se rehacen en el
+     * siguiente login correcto.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(
+            @Value("${security.password-hashing.cost:0}") int cost,
+            @Value("${security.password-hashing.target-hash-time:PT0.25S}") Duration targetHashTime,
+            @Value("${security.password-hashing.min-cost:10}") int minCost,
+            @Value("${security.password-hashing.max-cost:14}") int maxCost,
+            @Value("${security.password-hashing.threads:0}") int threads,
+            @Value("${security.password-hashing.queue-capacity:64}") int queueCapacity) {
+
+        BCryptCalibration.Result calibration = cost > 0
+                ? new BCryptCalibration.Result(cost, BCryptCalibration.measure(cost))
+                : BCryptCalibration.calibrate(targetHashTime, minCost, maxCost);
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        log.info("BCrypt con coste {} ({} ms por hash), {} hilos de hashing y cola de {}",
+                calibration.cost(), calibration.measuredHashTime().toMillis(), poolSize, queueCapacity);
+
+        return new BoundedPasswordEncoder(new CalibratedBCryptPasswordEncoder(calibration.cost()),
+                poolSize, queueCapacity, calibration.measuredHashTime());
+    }
+
+    @Bean
+    public MeterBinder passwordHashingMetrics(BoundedPasswordEncoder passwordEncoder) {
+        return registry -> {
+            Gauge.builder("password.hashing.active", passwordEncoder, BoundedPasswordEncoder::getActiveTasks)
+                    .description("Hashes de contraseña en ejecución")
+                    .register(registry);
+
+            Gauge.builder("password.hashing.queued", passwordEncoder, BoundedPasswordEncoder::getQueuedTasks)
+                    .description("Hashes de contraseña en espera")
+                    .register(registry);
+
+            FunctionCounter.builder("password.hashing.rejected", passwordEncoder, BoundedPasswordEncoder::getRejectedTasks)
+                    .description("Peticiones rechazadas con 503 por saturación del pool de hashing")
+                    .register(registry);
+        };
     }
 
     @Bean
@@ -0,0 +1,173 @@
+package com.challenge.starwars.config;
+
+import com.challenge.starwars.cache.CountMinSketch;
+import com.challenge.starwars.cache.ExpiringCache;
+import com.challenge.starwars.cache.ExpiringCacheMetrics;
+import com.challenge.starwars.cache.SerializedResponseCache;
+import com.challenge.starwars.cache.SerializedResponseCache.SerializedBody;
+import com.challenge.starwars.cache.Versioned;
+import com.challenge.starwars.dto.response.PeopleDetailResponse;
+import com.challenge.starwars.entity.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class CacheConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService cacheRefreshExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("cache-refresh-", 0).factory());
+    }
+
+    /**
+     * Con el refresco anticipado activo ({@code swapi.cache.people.refresh-ahead.enabled}) la
+     * caché estima además la frecuencia de acceso de cada personaje. La revalidación de una
+     * entrada vencida va a SWAPI; un fallo se carga antes desde los niveles locales (ver
+     * {@code PeopleServiceImpl}).
+     */
+    @Bean
+    public ExpiringCache<String, Versioned<PeopleDetailResponse>> peopleDetailCache(
+            @Value("${swapi.cache.people.maximum-size:500}") int maximumSize,
+            @Value("${swapi.cache.people.ttl:PT30M}") Duration ttl,
+            @Value("${swapi.cache.people.stale-while-revalidate:PT5M}") Duration staleWhileRevalidate,
+            @Value("${swapi.cache.people.refresh-ahead.enabled:true}") boolean refreshAhead,
+            @Qualifier("cacheRefreshExecutor") ExecutorService cacheRefreshExecutor) {
+
+        return ExpiringCache.<String, Versioned<PeopleDetailResponse>>builder("people.detail")
+                .maximumSize(maximumSize)
+                .ttl(ttl)
+                .staleWhileRevalidate(staleWhileRevalidate)
+                .refreshExecutor(cacheRefreshExecutor)
+                .frequencySketch(refreshAhead ? new CountMinSketch(maximumSize) : null)
+                .build();
+    }
+
+    /**
+     * IDs de personajes que SWAPI informó como inexistentes. El TTL es corto para que un
+     * personaje nuevo se vea pronto.
+     */
+    @Bean
+    public ExpiringCache<String, Boolean> peopleNotFoundCache(
+            @Value("${swapi.cache.people-not-found.maximum-size:10000}") int maximumSize,
+            @Value("${swapi.cache.people-not-found.ttl:PT1M}") Duration ttl) {
+
+        return ExpiringCache.<String, Boolean>builder("people.not-found")
+                .maximumSize(maximumSize)
+                .ttl(ttl)
+                .build();
+    }
+
+    @Bean
+    public MeterBinder peopleNotFoundCacheMetrics(@Qualifier("peopleNotFoundCache") ExpiringCache<String, Boolean> peopleNotFoundCache) {
+        return new ExpiringCacheMetrics(peopleNotFoundCache);
+    }
+
+    /**
+     * Tokens JWT ya verificados, indexados por su digest. La vigencia de cada entrada se
+     * acota además a la expiración del token.
+     */
+    @Bean
+    public ExpiringCache<String, Claims> verifiedTokenCache(
+            @Value("${spring.jwt.verified-cache.maximum-size:10000}") int maximumSize,
+            @Value("${spring.jwt.verified-cache.ttl:PT5M}") Duration ttl) {
+
+        return ExpiringCache.<String, Claims>builder("jwt.verified")
+                .maximumSize(maximumSize)
+                .ttl(ttl)
+                .build();
+    }
+
+    @Bean
+    public MeterBinder verifiedTokenCacheMetrics(@Qualifier("verifiedTokenCache") ExpiringCache<String, Claims> verifiedTokenCache) {
+        return new ExpiringCacheMetrics(verifiedTokenCache);
+    }
+
+    /**
+     * Usuarios cargados por el {@code UserDetailsService}. Las escrituras sobre un usuario
+     * deben invalidar su entrada (ver {@code AuthenticationServiceImpl}).
+     */
+    @Bean
+    public ExpiringCache<String, User> userDetailsCache(
+            @Value("${security.user-cache.maximum-size:10000}") int maximumSize,
+            @Value("${security.user-cache.ttl:PT10M}") Duration ttl) {
+
+        return ExpiringCache.<String, User>builder("users")
+                .maximumSize(maximumSize)
+                .ttl(ttl)
+                .build();
+    }
+
+    @Bean
+    public MeterBinder userDetailsCacheMetrics(@Qualifier("userDetailsCache") ExpiringCache<String, User> userDetailsCache) {
+        return new ExpiringCacheMetrics(userDetailsCache);
+    }
+
+    /**
+     * Usuarios cuyo estado de cuenta se comprobó recientemente en el modo de autenticación
+     * sin estado; la TTL es el intervalo de recomprobación.
+     */
+    @Bean
+    public ExpiringCache<String, Boolean> accountCheckCache(
+            @Value("${spring.jwt.stateless.account-recheck-interval:PT5M}") Duration recheckInterval,
+            @Value("${spring.jwt.stateless.maximum-users:10000}") int maximumSize) {
+
+        return ExpiringCache.<String, Boolean>builder("jwt.account.checks")
+                .maximumSize(maximumSize)
+                .ttl(recheckInterval)
+                .build();
+    }
+
+    /**
+     * Política de caché HTTP de los recursos de personajes. Es privada porque las
+     * respuestas requieren autenticación; la revalidación se hace con ETag.
+     */
+    @Bean
+    public CacheControl peopleCacheControl(@Value("${swapi.http-cache.max-age:PT1M}") Duration maxAge) {
+        return CacheControl.maxAge(maxAge).cachePrivate();
+    }
+
+    @Bean
+    public MeterBinder peopleDetailCacheMetrics(ExpiringCache<String, Versioned<PeopleDetailResponse>> peopleDetailCache) {
+        return new ExpiringCacheMetrics(peopleDetailCache);
+    }
+
+    /**
+     * Modo de respuestas pre-serializadas ({@code swapi.http-cache.pre-serialized.enabled}):
+     * los cuerpos JSON de los recursos de personajes se guardan como bytes, junto con su
+     * variante gzip, y el controlador los escribe directamente.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(name = "swapi.http-cache.pre-serialized.enabled", havingValue = "true", matchIfMissing = true)
+    static class SerializedResponseCacheConfig {
+
+        @Bean
+        public SerializedResponseCache serializedResponseCache(
+                ObjectMapper objectMapper,
+                @Value("${swapi.http-cache.pre-serialized.maximum-size:1000}") int maximumSize,
+                @Value("${swapi.http-cache.pre-serialized.ttl:PT30M}") Duration ttl,
+                @Value("${swapi.http-cache.pre-serialized.gzip-min-size:1024}") int gzipMinSize) {
+
+            ExpiringCache<String, SerializedBody> bodies = ExpiringCache.<String, SerializedBody>builder("people.serialized")
+                    .maximumSize(maximumSize)
+                    .ttl(ttl)
+                    .build();
+            return new SerializedResponseCache(objectMapper, bodies, gzipMinSize);
+        }
+
+        @Bean
+        public MeterBinder serializedResponseCacheMetrics(SerializedResponseCache serializedResponseCache) {
+            return new ExpiringCacheMetrics(serializedResponseCache.getBodies());
+        }
+    }
+}
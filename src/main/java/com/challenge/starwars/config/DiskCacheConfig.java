@@ -0,0 +1,49 @@
+package com.challenge.starwars.config;
+
+import com.challenge.starwars.cache.DiskCache;
+import com.challenge.starwars.cache.DiskCacheMetrics;
+import com.challenge.starwars.cache.JsonCodec;
+import com.challenge.starwars.dto.response.PeopleDetailResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Segundo nivel de la caché de personajes ({@code swapi.cache.people.l2.enabled}): los
+ * detalles obtenidos de SWAPI se guardan como JSON en un fichero mapeado en memoria, de
+ * modo que sobreviven a los reinicios y no ocupan heap. El primer nivel sigue siendo
+ * {@code peopleDetailCache}; un acierto en este nivel se promueve a él.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "swapi.cache.people.l2.enabled", havingValue = "true", matchIfMissing = true)
+public class DiskCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public DiskCache<PeopleDetailResponse> peopleDetailDiskCache(
+            ObjectMapper objectMapper,
+            @Value("${swapi.cache.people.l2.path:./data/people-detail.cache}") Path path,
+            @Value("${swapi.cache.people.l2.maximum-entries:10000}") int maximumEntries,
+            @Value("${swapi.cache.people.l2.slot-size:512}") int slotSize,
+            @Value("${swapi.cache.people.l2.ttl:PT24H}") Duration ttl) {
+
+        JsonCodec<PeopleDetailResponse> codec = new JsonCodec<>(objectMapper, PeopleDetailResponse.class);
+        return DiskCache.<PeopleDetailResponse>builder("people.detail.l2")
+                .path(path)
+                .maximumEntries(maximumEntries)
+                .slotSize(slotSize)
+                .ttl(ttl)
+                .codec(codec::encode, codec::decode)
+                .build();
+    }
+
+    @Bean
+    public MeterBinder peopleDetailDiskCacheMetrics(DiskCache<PeopleDetailResponse> peopleDetailDiskCache) {
+        return new DiskCacheMetrics(peopleDetailDiskCache);
+    }
+}
@@ -1,9 +1,44 @@
 package com.challenge.starwars.config;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.ManagedHttpClientConnectionFactory;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.io.ManagedHttpClientConnection;
+import org.apache.hc.core5.http.io.HttpConnectionFactory;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.http.client.ClientHttpRequestFactoryBuilder;
+import org.springframework.boot.http.client.ClientHttpRequestFactorySettings;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestClient;
 
+import javax.net.ssl.SSLSocket;
+import java.io.IOException;
+import java.net.Socket;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cliente HTTP saliente hacia SWAPI. El motor se elige con {@code swapi.http.engine}:
+ * {@code apache} (por defecto) usa un pool de conexiones de Apache HttpClient 5 con
+ * límites, keep-alive y métricas de reutilización; {@code jdk} usa el HttpClient del JDK
+ * negociando HTTP/2. Los beans se exponen como {@link ClientHttpRequestFactoryBuilder}
+ * para que el {@link RestClient.Builder} autoconfigurado los aplique antes de sus
+ * customizers (lo que mantiene operativo {@code MockRestServiceServer} en los tests).
+ */
 @Configuration
 public class RestClientConfig {
 
@@ -13,4 +48,142 @@ public class RestClientConfig {
                 .baseUrl("https://www.swapi.tech/api")
                 .build();
     }
+
+    @Bean
+    public ClientHttpRequestFactorySettings clientHttpRequestFactorySettings(
+            @Value("${swapi.http.connect-timeout:PT2S}") Duration connectTimeout,
+            @Value("${swapi.http.response-timeout:PT10S}") Duration responseTimeout) {
+
+        return ClientHttpRequestFactorySettings.defaults()
+                .withTimeouts(connectTimeout, responseTimeout);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(name = "swapi.http.engine", havingValue = "apache", matchIfMissing = true)
+    static class PooledHttpClientConfig {
+
+        private final CountingConnectionFactory connectionFactory = new CountingConnectionFactory();
+        private final LongAdder exchanges = new LongAdder();
+
+        @Bean(destroyMethod = "close")
+        public PoolingHttpClientConnectionManager swapiConnectionManager(
+                @Value("${swapi.http.max-connections:64}") int maxConnections,
+                @Value("${swapi.http.max-connections-per-route:64}") int maxConnectionsPerRoute,
+                @Value("${swapi.http.connect-timeout:PT2S}") Duration connectTimeout,
+                @Value("${swapi.http.read-timeout:PT5S}") Duration readTimeout,
+                @Value("${swapi.http.connection-ttl:PT5M}") Duration connectionTtl) {
+
+            return PoolingHttpClientConnectionManagerBuilder.create()
+                    .setConnectionFactory(connectionFactory)
+                    .setMaxConnTotal(maxConnections)
+                    .setMaxConnPerRoute(maxConnectionsPerRoute)
+                    .setDefaultConnectionConfig(ConnectionConfig.custom()
+                            .setConnectTimeout(Timeout.of(connectTimeout))
+                            .setSocketTimeout(Timeout.of(readTimeout))
+                            .setTimeToLive(TimeValue.of(connectionTtl))
+                            .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                            .build())
+                    .build();
+        }
+
+        @Bean(destroyMethod = "close")
+        public CloseableHttpClient swapiHttpClient(
+                PoolingHttpClientConnectionManager swapiConnectionManager,
+                @Value("${swapi.http.keep-alive:PT30S}") Duration keepAlive,
+                @Value("${swapi.http.connection-request-timeout:PT1S}") Duration connectionRequestTimeout,
+                @Value("${swapi.http.response-timeout:PT10S}") Duration responseTimeout) {
+
+            TimeValue defaultKeepAlive = TimeValue.of(keepAlive);
+
+            return HttpClients.custom()
+                    .setConnectionManager(swapiConnectionManager)
+                    .setDefaultRequestConfig(RequestConfig.custom()
+                            .setConnectionRequestTimeout(Timeout.of(connectionRequestTimeout))
+                            .setResponseTimeout(Timeout.of(responseTimeout))
+                            .build())
+                    .setKeepAliveStrategy((response, context) -> {
+                        TimeValue announced = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                        return TimeValue.isPositive(announced) && announced.compareTo(defaultKeepAlive) < 0
+                                ? announced
+                                : defaultKeepAlive;
+                    })
+                    .addRequestInterceptorFirst((request, entity, context) -> exchanges.increment())
+                    .evictExpiredConnections()
+                    .evictIdleConnections(defaultKeepAlive)
+                    .build();
+        }
+
+        @Bean
+        public ClientHttpRequestFactoryBuilder<HttpComponentsClientHttpRequestFactory> clientHttpRequestFactoryBuilder(
+                CloseableHttpClient swapiHttpClient) {
+
+            return ClientHttpRequestFactoryBuilder.of(() -> new HttpComponentsClientHttpRequestFactory(swapiHttpClient));
+        }
+
+        @Bean
+        public MeterBinder swapiConnectionPoolMetrics(PoolingHttpClientConnectionManager swapiConnectionManager) {
+            MeterBinder poolMetrics = new PoolingHttpClientConnectionManagerMetricsBinder(swapiConnectionManager, "swapi");
+
+            return registry -> {
+                poolMetrics.bindTo(registry);
+
+                FunctionCounter.builder("swapi.http.connections.created", connectionFactory, CountingConnectionFactory::getCreated)
+                        .description("Conexiones TCP abiertas hacia SWAPI")
+                        .register(registry);
+
+                FunctionCounter.builder("swapi.http.exchanges", exchanges, LongAdder::sum)
+                        .description("Peticiones HTTP enviadas a SWAPI; la diferencia con las conexiones creadas son reutilizaciones")
+                        .register(registry);
+            };
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(name = "swapi.http.engine", havingValue = "jdk")
+    static class JdkHttpClientConfig {
+
+        /**
+         * El pool del HttpClient del JDK sólo se ajusta mediante propiedades de sistema, que
+         * se leen al inicializar sus clases; se fijan aquí salvo que ya vengan de la JVM.
+         */
+        @Bean
+        public ClientHttpRequestFactoryBuilder<?> clientHttpRequestFactoryBuilder(
+                @Value("${swapi.http.max-connections:64}") int maxConnections,
+                @Value("${swapi.http.keep-alive:PT30S}") Duration keepAlive) {
+
+            setIfAbsent("jdk.httpclient.connectionPoolSize", String.valueOf(maxConnections));
+            setIfAbsent("jdk.httpclient.keepalive.timeout", String.valueOf(keepAlive.toSeconds()));
+
+            return ClientHttpRequestFactoryBuilder.jdk()
+                    .withHttpClientCustomizer(builder -> builder.version(HttpClient.Version.HTTP_2));
+        }
+
+        private static void setIfAbsent(String key, String value) {
+            if (System.getProperty(key) == null) {
+                System.setProperty(key, value);
+            }
+        }
+    }
+
+    static final class CountingConnectionFactory implements HttpConnectionFactory<ManagedHttpClientConnection> {
+
+        private final HttpConnectionFactory<ManagedHttpClientConnection> delegate = ManagedHttpClientConnectionFactory.INSTANCE;
+        private final LongAdder created = new LongAdder();
+
+        @Override
+        public ManagedHttpClientConnection createConnection(Socket socket) throws IOException {
+            created.increment();
+            return delegate.createConnection(socket);
+        }
+
+        @Override
+        public ManagedHttpClientConnection createConnection(SSLSocket sslSocket, Socket socket) throws IOException {
+            created.increment();
+            return delegate.createConnection(sslSocket, socket);
+        }
+
+        long getCreated() {
+            return created.sum();
+        }
+    }
 }
@@ -0,0 +1,91 @@
+package com.challenge.starwars.config;
+
+import com.challenge.starwars.cache.JsonCodec;
+import com.challenge.starwars.cache.RedisCacheBackend;
+import com.challenge.starwars.cache.SharedCache;
+import com.challenge.starwars.cache.SharedCacheBackend;
+import com.challenge.starwars.cache.SharedCacheMetrics;
+import com.challenge.starwars.dto.response.PeopleDetailResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Caché compartida entre réplicas ({@code swapi.cache.shared.enabled}) sobre un servidor
+ * compatible con el protocolo de Redis. Las cachés locales de personajes actúan como near
+ * cache y esta como far cache: un personaje que ya pidió otra réplica no vuelve a
+ * consumir cuota de SWAPI.
+ * <p>
+ * El cliente ({@link RedisCacheBackend}) habla RESP2 en claro contra un único servidor: no
+ * admite TLS, Sentinel, Cluster ni RESP3. Para no degradar en silencio a un fallo de caché
+ * permanente, el arranque falla si la configuración pide alguna de esas opciones.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "swapi.cache.shared.enabled", havingValue = "true")
+public class SharedCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public SharedCacheBackend sharedCacheBackend(
+            @Value("${swapi.cache.shared.host:localhost}") String host,
+            @Value("${swapi.cache.shared.port:6379}") int port,
+            @Value("${swapi.cache.shared.password:}") String password,
+            @Value("${swapi.cache.shared.timeout:PT0.5S}") Duration timeout,
+            @Value("${swapi.cache.shared.pool-size:16}") int poolSize,
+            @Value("${swapi.cache.shared.retry-interval:PT5S}") Duration retryInterval,
+            Environment environment) {
+
+        rejectUnsupportedDeployment(host, environment);
+        return new RedisCacheBackend(host, port, password, timeout, poolSize, retryInterval);
+    }
+
+    private static void rejectUnsupportedDeployment(String host, Environment environment) {
+        List<String> unsupported = new ArrayList<>();
+        if (environment.getProperty("swapi.cache.shared.ssl", Boolean.class, false)
+                || environment.getProperty("spring.data.redis.ssl.enabled", Boolean.class, false)) {
+            unsupported.add("TLS");
+        }
+        if (host.contains("://") || environment.getProperty("spring.data.redis.url", "").startsWith("rediss://")) {
+            unsupported.add("URL de conexión (" + (host.contains("://") ? host : "spring.data.redis.url") + ")");
+        }
+        if (environment.containsProperty("spring.data.redis.sentinel.master")
+                || environment.containsProperty("spring.data.redis.sentinel.nodes")) {
+            unsupported.add("Sentinel");
+        }
+        if (environment.containsProperty("spring.data.redis.cluster.nodes")) {
+            unsupported.add("Cluster");
+        }
+        if (!unsupported.isEmpty()) {
+            throw new IllegalStateException("La caché compartida sólo admite un servidor con RESP2 sin TLS "
+                    + "(swapi.cache.shared.host y port); no se admite: " + String.join(", ", unsupported));
+        }
+    }
+
+    @Bean
+    public SharedCache<PeopleDetailResponse> peopleDetailSharedCache(
+            SharedCacheBackend sharedCacheBackend,
+            ObjectMapper objectMapper,
+            @Value("${swapi.cache.shared.key-prefix:starwars:}") String keyPrefix,
+            @Value("${swapi.cache.shared.people.ttl:PT24H}") Duration ttl) {
+
+        JsonCodec<PeopleDetailResponse> codec = new JsonCodec<>(objectMapper, PeopleDetailResponse.class);
+        return SharedCache.<PeopleDetailResponse>builder("people.detail.shared")
+                .backend(sharedCacheBackend)
+                .keyPrefix(keyPrefix)
+                .ttl(ttl)
+                .codec(codec::encode, codec::decode)
+                .build();
+    }
+
+    @Bean
+    public MeterBinder peopleDetailSharedCacheMetrics(SharedCache<PeopleDetailResponse> peopleDetailSharedCache) {
+        return new SharedCacheMetrics(peopleDetailSharedCache);
+    }
+}
@@ -2,6 +2,7 @@ package com.challenge.starwars.controller;
 
 
 import com.challenge.starwars.dto.request.AuthenticationRequest;
+import com.challenge.starwars.dto.request.RefreshTokenRequest;
 import com.challenge.starwars.dto.request.RegisterRequest;
 import com.challenge.starwars.dto.response.AuthenticationResponse;
 import com.challenge.starwars.service.AuthenticationService;
@@ -9,6 +10,7 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
@@ -35,4 +37,32 @@ public class AuthenticationController {
 
         return authenticationService.login(authenticationRequest);
     }
+
+    @Operation(summary = "Renovación del JWT con un refresh token (que se rota)")
+    @ResponseStatus(HttpStatus.OK)
+    @PostMapping("/refresh")
+    public AuthenticationResponse refresh(@Valid @RequestBody RefreshTokenRequest refreshTokenRequest){
+
+        return authenticationService.refresh(refreshTokenRequest);
+    }
+
+    @Operation(summary = "Revocación de un refresh token y de sus rotaciones")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @PostMapping("/revoke")
+    public void revoke(@Valid @RequestBody RefreshTokenRequest refreshTokenRequest){
+
+        authenticationService.revoke(refreshTokenRequest);
+    }
+
+    @Operation(summary = "Logout: revoca el JWT presentado y, opcionalmente, el refresh token")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @PostMapping("/logout")
+    public void logout(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+                       @RequestBody(required = false) RefreshTokenRequest refreshTokenRequest){
+
+        String accessToken = authorization != null && authorization.startsWith("Bearer ")
+                ? authorization.substring(7)
+                : null;
+        authenticationService.logout(accessToken, refreshTokenRequest);
+    }
 }
@@ -1,44 +1,161 @@
 package com.challenge.starwars.controller;
 
+import com.challenge.starwars.cache.SerializedResponseCache;
+import com.challenge.starwars.cache.SerializedResponseCache.SerializedBody;
+import com.challenge.starwars.cache.Versioned;
+import com.challenge.starwars.dto.response.PeopleBatchResponse;
 import com.challenge.starwars.dto.response.PeopleDetailResponse;
 import com.challenge.starwars.dto.response.PeoplePageResponse;
 import com.challenge.starwars.service.PeopleService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/people")
-@AllArgsConstructor
 @Tag(name = "Personajes")
 public class PeopleController {
 
     private final PeopleService peopleService;
 
+    private final CacheControl peopleCacheControl;
+
+    private final SerializedResponseCache serializedResponseCache;
+
+    public PeopleController(PeopleService peopleService,
+                            CacheControl peopleCacheControl,
+                            ObjectProvider<SerializedResponseCache> serializedResponseCache) {
+        this.peopleService = peopleService;
+        this.peopleCacheControl = peopleCacheControl;
+        this.serializedResponseCache = serializedResponseCache.getIfAvailable();
+    }
+
+    @GetMapping("batch")
+    @Operation(summary = "Obtener detalles de varios personajes en una sola llamada")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resultados parciales: personajes encontrados y errores por ID"),
+            @ApiResponse(responseCode = "400", description = "Lista de IDs vacía o demasiado grande")
+    })
+    public ResponseEntity<PeopleBatchResponse> getPeopleByIds(@RequestParam List<String> ids){
+
+        return ResponseEntity.ok(peopleService.getPeopleByIds(ids));
+    }
+
     @GetMapping("{id}")
     @Operation(summary = "Obtener detalles de un personaje")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Personaje encontrado"),
+            @ApiResponse(responseCode = "200", description = "Personaje encontrado",
+                    content = @Content(schema = @Schema(implementation = PeopleDetailResponse.class))),
+            @ApiResponse(responseCode = "304", description = "El personaje no cambió desde el ETag indicado en If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Personaje no encontrado")
     })
-    public ResponseEntity<PeopleDetailResponse> getPersonById(@PathVariable String id){
+    public ResponseEntity<?> getPersonById(@PathVariable String id, WebRequest request){
 
-        return ResponseEntity.ok(peopleService.getPersonById(id));
+        return conditional(peopleService.getVersionedPersonById(id), request);
     }
 
     @Operation(summary = "Listado paginado de personajes")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de personajes",
+                    content = @Content(schema = @Schema(implementation = PeoplePageResponse.class))),
+            @ApiResponse(responseCode = "304", description = "La página no cambió desde el ETag indicado en If-None-Match")
+    })
     @GetMapping
-    public ResponseEntity<PeoplePageResponse> getPeople(
+    public ResponseEntity<?> getPeople(
             @RequestParam(required = false) String name,
             @RequestParam(defaultValue = "1") int page,
-            @RequestParam(defaultValue = "10") int limit
+            @RequestParam(defaultValue = "10") int limit,
+            WebRequest request
     ) {
 
-        PeoplePageResponse response = peopleService.getPeople(name, page, limit);
-        return ResponseEntity.ok(response);
+        return conditional(peopleService.getVersionedPeople(name, page, limit), request);
+    }
+
+    /**
+     * Responde 304 si el ETag de la representación elegida coincide con If-None-Match
+     * ({@code checkNotModified} ya añade la cabecera ETag). En otro caso escribe los bytes
+     * pre-serializados (gzip si el cliente lo acepta) o, sin ese modo o si el cliente no
+     * acepta JSON, deja la serialización a Spring. La variante gzip lleva su propio ETag
+     * (sufijo {@code -gz}), porque sus bytes no son los de la identidad, y todas las
+     * respuestas declaran {@code Vary: Accept-Encoding} para que las cachés intermedias
+     * no sirvan una variante a quien pidió la otra.
+     */
+    private ResponseEntity<?> conditional(Versioned<?> versioned, WebRequest request) {
+        boolean preSerialized = serializedResponseCache != null && acceptsJson(request.getHeader(HttpHeaders.ACCEPT));
+        SerializedBody body = preSerialized && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))
+                ? serializedResponseCache.get(versioned)
+                : null;
+        boolean gzip = body != null && body.hasGzip();
+        String etag = gzip ? gzipEtag(versioned.etag()) : versioned.etag();
+
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(peopleCacheControl)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(peopleCacheControl)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+
+        if (!preSerialized) {
+            return response.body(versioned.value());
+        }
+
+        response.contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .contentLength(body.gzip().length)
+                    .body(body.gzip());
+        }
+        byte[] json = (body != null ? body : serializedResponseCache.get(versioned)).json();
+        return response.contentLength(json.length)
+                .body(json);
+    }
+
+    private static String gzipEtag(String etag) {
+        return etag.substring(0, etag.length() - 1) + "-gz\"";
+    }
+
+    private static boolean acceptsJson(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return true;
+        }
+        try {
+            return MediaType.parseMediaTypes(accept).stream()
+                    .anyMatch(mediaType -> mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)
+                            && mediaType.getQualityValue() > 0);
+        } catch (InvalidMediaTypeException ex) {
+            return false;
+        }
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
     }
 }
@@ -6,7 +6,6 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.List;
-import java.util.Map;
 
 @Data
 @NoArgsConstructor
@@ -21,6 +20,6 @@ public class SwapiPeopleSearchResponse {
     @JsonIgnoreProperties(ignoreUnknown = true)
     public static class PeopleSearchItem {
         private String uid;
-        private Map<String, Object> properties;
+        private SwapiPeopleSingleResponse.PersonProperties properties;
     }
 }
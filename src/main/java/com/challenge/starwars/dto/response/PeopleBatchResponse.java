@@ -0,0 +1,19 @@
+package com.challenge.starwars.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PeopleBatchResponse {
+
+    private Map<String, PeopleDetailResponse> results;
+
+    private Map<String, ErrorResponse> errors;
+}
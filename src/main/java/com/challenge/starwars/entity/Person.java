@@ -0,0 +1,46 @@
+package com.challenge.starwars.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Copia local de un personaje de SWAPI. El resumen ({@code uid} y nombre) se sincroniza
+ * con el listado; el detalle se completa aparte y {@code detailsSyncedAt} queda a
+ * {@code null} mientras falte o tras un cambio de nombre.
+ */
+@Entity
+@Table(name = "people", indexes = {
+        @Index(name = "idx_people_normalized_name", columnList = "normalizedName")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Person {
+
+    @Id
+    @Column(length = 16)
+    private String uid;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(nullable = false)
+    private String normalizedName;
+
+    private String gender;
+
+    private String height;
+
+    private String url;
+
+    private Instant detailsSyncedAt;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+}
@@ -3,10 +3,14 @@ package com.challenge.starwars.exception;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
+/**
+ * Recurso inexistente (404). No captura la pila de llamadas: es un resultado esperado,
+ * frecuente ante IDs inventados, y la traza no aporta nada al diagnóstico.
+ */
 @ResponseStatus(HttpStatus.NOT_FOUND)
 public class ResourceNotFoundException extends RuntimeException {
 
     public ResourceNotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
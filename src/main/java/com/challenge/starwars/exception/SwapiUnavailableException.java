@@ -0,0 +1,14 @@
+package com.challenge.starwars.exception;
+
+/**
+ * Fallo atribuible a SWAPI: cualquier respuesta de error salvo un 404 (5xx, 429, 408...)
+ * o un error de red. Es el único tipo de error que se reintenta y el que activa la
+ * respuesta de reserva; para el circuit breaker cuenta como fallo, igual que cualquier
+ * otra excepción inesperada (ver {@code SwapiCircuitBreaker}).
+ */
+public class SwapiUnavailableException extends ServiceUnavailableException {
+
+    public SwapiUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,32 @@
+package com.challenge.starwars.repository;
+
+import com.challenge.starwars.entity.Person;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface PersonRepository extends CrudRepository<Person, String> {
+
+    /**
+     * Los uid son enteros sin ceros a la izquierda: ordenar por longitud y luego por
+     * texto equivale al orden numérico.
+     */
+    @Query(value = "select p from Person p order by length(p.uid), p.uid",
+            countQuery = "select count(p) from Person p")
+    Page<Person> findPage(Pageable pageable);
+
+    @Query("select p from Person p where p.normalizedName like concat('%', :name, '%') escape '\\' " +
+            "order by length(p.uid), p.uid")
+    List<Person> searchByNormalizedName(@Param("name") String normalizedName);
+
+    @Query("select p.uid from Person p where p.detailsSyncedAt is null or p.detailsSyncedAt < :staleBefore " +
+            "order by p.detailsSyncedAt nulls first, length(p.uid), p.uid")
+    List<String> findUidsNeedingDetails(@Param("staleBefore") Instant staleBefore, Pageable pageable);
+}
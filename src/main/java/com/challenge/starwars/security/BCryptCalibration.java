@@ -0,0 +1,41 @@
+package com.challenge.starwars.security;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+/**
+ * Elige al arrancar el coste de BCrypt más alto cuyo tiempo de hash en esta máquina no
+ * supere el objetivo, dentro de {@code [minCost, maxCost]}. Cada punto de coste duplica
+ * el trabajo: se sube mientras el doble del tiempo medido siga dentro del objetivo. La
+ * primera medición sólo calienta el JIT.
+ */
+public final class BCryptCalibration {
+
+    private BCryptCalibration() {
+    }
+
+    public record Result(int cost, Duration measuredHashTime) {
+    }
+
+    public static Result calibrate(Duration target, int minCost, int maxCost) {
+        int cost = minCost;
+        measure(cost);
+        Duration measured = measure(cost);
+
+        while (cost < maxCost && measured.multipliedBy(2).compareTo(target) <= 0) {
+            cost++;
+            measured = measure(cost);
+        }
+        return new Result(cost, measured);
+    }
+
+    public static Duration measure(int cost) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(cost);
+        String sample = "calibracion-" + System.nanoTime();
+
+        long start = System.nanoTime();
+        encoder.encode(sample);
+        return Duration.ofNanos(System.nanoTime() - start);
+    }
+}
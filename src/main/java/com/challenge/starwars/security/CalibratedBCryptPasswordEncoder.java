@@ -0,0 +1,36 @@
+package com.challenge.starwars.security;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt que pide re-hashear la contraseña cuando el coste del hash guardado difiere del
+ * calibrado, en cualquier sentido. {@link BCryptPasswordEncoder#upgradeEncoding} sólo lo
+ * hace cuando el coste guardado es menor, así que tras bajar el coste (máquina más lenta o
+ * {@code security.password-hashing.cost} menor) cada login seguiría pagando el anterior.
+ */
+public class CalibratedBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final Pattern BCRYPT_PREFIX = Pattern.compile("\\A\\$2[aby]?\\$(\\d\\d)\\$");
+
+    private final int cost;
+
+    public CalibratedBCryptPasswordEncoder(int cost) {
+        super(cost);
+        this.cost = cost;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_PREFIX.matcher(encodedPassword);
+        if (!matcher.find()) {
+            return super.upgradeEncoding(encodedPassword);
+        }
+        return Integer.parseInt(matcher.group(1)) != cost;
+    }
+}
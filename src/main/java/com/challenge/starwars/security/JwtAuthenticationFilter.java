@@ -1,31 +1,59 @@
 package com.challenge.starwars.security;
 
+import com.challenge.starwars.cache.ExpiringCache;
+import com.challenge.starwars.entity.User;
 import com.challenge.starwars.service.JwtService;
+import com.challenge.starwars.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 
+/**
+ * En modo sin estado ({@code spring.jwt.stateless.enabled}) el principal se construye a
+ * partir de los claims verificados, sin consultar la base de datos. El estado de la cuenta
+ * se vuelve a comprobar, como mucho, una vez por usuario cada
+ * {@code spring.jwt.stateless.account-recheck-interval} (cero desactiva la comprobación).
+ * Los tokens sin claim {@code role} siguen resolviéndose contra la base de datos. Los
+ * tokens revocados se descartan (ver {@link TokenRevocationService}). Un token expirado o
+ * manipulado deja la petición sin autenticar: las rutas protegidas responden 401 desde el
+ * entry point y las públicas (logout, refresh) siguen funcionando con una cabecera caducada.
+ */
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
+    private final TokenRevocationService tokenRevocationService;
     private final UserDetailsService userDetailsService;
-
-    public JwtAuthenticationFilter(JwtService jwtService, @Lazy UserDetailsService userDetailsService) {
+    private final boolean stateless;
+    private final ExpiringCache<String, Boolean> accountCheckCache;
+
+    public JwtAuthenticationFilter(JwtService jwtService,
+                                   TokenRevocationService tokenRevocationService,
+                                   @Lazy UserDetailsService userDetailsService,
+                                   @Value("${spring.jwt.stateless.enabled:true}") boolean stateless,
+                                   @Qualifier("accountCheckCache") ExpiringCache<String, Boolean> accountCheckCache) {
         this.jwtService = jwtService;
+        this.tokenRevocationService = tokenRevocationService;
         this.userDetailsService = userDetailsService;
+        this.stateless = stateless;
+        this.accountCheckCache = accountCheckCache;
     }
 
     @Override
@@ -37,21 +65,29 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
+        final Claims claims;
         final String username;
 
-        if (authHeader == null || !authHeader.startsWith("Bearer")) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
             return;
         }
 
         jwt = authHeader.substring(7);
-        username = jwtService.extractUsername(jwt);
+        try {
+            claims = jwtService.verifyToken(jwt);
+        } catch (JwtException | IllegalArgumentException ex) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        username = claims.getSubject();
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null){
+        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null
+                && !tokenRevocationService.isRevoked(claims)){
 
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+            UserDetails userDetails = resolvePrincipal(claims);
 
-            if (jwtService.isTokenValid(jwt, userDetails)){
+            if (userDetails != null && jwtService.isTokenValid(claims, userDetails)){
 
                 UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
                         userDetails,
@@ -68,4 +104,37 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
 
     }
+
+    /**
+     * Devuelve el principal del token, o {@code null} si la cuenta ya no es válida.
+     */
+    private UserDetails resolvePrincipal(Claims claims) {
+        String username = claims.getSubject();
+        String role = claims.get("role", String.class);
+
+        if (!stateless || role == null) {
+            return this.userDetailsService.loadUserByUsername(username);
+        }
+
+        if (!accountCheckCache.getTtl().isZero() && accountCheckCache.getIfPresent(username).isEmpty()) {
+            if (!isAccountActive(username)) {
+                return null;
+            }
+            accountCheckCache.put(username, Boolean.TRUE);
+        }
+
+        return User.builder()
+                .username(username)
+                .role(role)
+                .build();
+    }
+
+    private boolean isAccountActive(String username) {
+        try {
+            UserDetails account = this.userDetailsService.loadUserByUsername(username);
+            return account.isEnabled() && account.isAccountNonLocked() && account.isAccountNonExpired();
+        } catch (UsernameNotFoundException ex) {
+            return false;
+        }
+    }
 }
@@ -0,0 +1,221 @@
+package com.challenge.starwars.security;
+
+import com.challenge.starwars.dto.response.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Limita la tasa de peticiones por usuario autenticado (o por IP) y globalmente, con los
+ * límites de la primera regla de {@link RateLimitProperties} que coincide con la ruta. Se
+ * registra detrás de {@link JwtAuthenticationFilter} para conocer ya el principal.
+ * El bucket global se reparte en franjas independientes (cada una con su parte del
+ * límite) para que los hilos no compitan por un mismo contador; si la franja elegida está
+ * agotada se prueban las demás, de modo que sólo se rechaza cuando se consumió todo el
+ * límite global. Si el límite global rechaza la petición, se devuelve al usuario la ficha
+ * que ya se le había descontado. Las respuestas incluyen
+ * las cabeceras {@code RateLimit-*}; al superar el límite se responde 429 con {@code Retry-After}.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter implements MeterBinder {
+
+    private final boolean enabled;
+    private final List<CompiledRule> rules;
+    private final ObjectMapper objectMapper;
+    private final LongSupplier nanoTime;
+
+    private final LongAdder userRejections = new LongAdder();
+    private final LongAdder globalRejections = new LongAdder();
+
+    @Autowired
+    public RateLimitFilter(RateLimitProperties properties, ObjectMapper objectMapper) {
+        this(properties, objectMapper, System::nanoTime);
+    }
+
+    RateLimitFilter(RateLimitProperties properties, ObjectMapper objectMapper, LongSupplier nanoTime) {
+        this.enabled = properties.enabled();
+        this.rules = properties.rules().stream()
+                .map(rule -> new CompiledRule(rule, PathPatternParser.defaultInstance.parse(rule.pattern()),
+                        properties.globalStripes()))
+                .toList();
+        this.objectMapper = objectMapper;
+        this.nanoTime = nanoTime;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled || rules.isEmpty();
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        CompiledRule rule = match(request);
+        if (rule == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long now = nanoTime.getAsLong();
+        TokenBucket.Decision decision = rule.userBucket(clientKey(request)).tryAcquire(now);
+        if (!decision.allowed()) {
+            userRejections.increment();
+            reject(response, rule, decision);
+            return;
+        }
+
+        TokenBucket.Decision global = rule.tryAcquireGlobal(now);
+        if (!global.allowed()) {
+            rule.userBucket(clientKey(request)).release(now);
+            globalRejections.increment();
+            reject(response, rule, global);
+            return;
+        }
+
+        writeHeaders(response, rule, decision);
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Descarta los buckets de usuario que ya se rellenaron, para que el mapa no crezca con
+     * clientes que dejaron de llamar.
+     */
+    @Scheduled(fixedDelayString = "${security.rate-limit.cleanup-interval:PT1M}")
+    public void evictIdleBuckets() {
+        long now = nanoTime.getAsLong();
+        rules.forEach(rule -> rule.userBuckets().values().removeIf(bucket -> bucket.isIdle(now)));
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        FunctionCounter.builder("rate.limit.rejected", userRejections, LongAdder::sum)
+                .tag("scope", "user")
+                .description("Peticiones rechazadas con 429 por superar el límite")
+                .register(registry);
+
+        FunctionCounter.builder("rate.limit.rejected", globalRejections, LongAdder::sum)
+                .tag("scope", "global")
+                .description("Peticiones rechazadas con 429 por superar el límite")
+                .register(registry);
+    }
+
+    private CompiledRule match(HttpServletRequest request) {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+        for (CompiledRule rule : rules) {
+            if (rule.pattern().matches(path)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, CompiledRule rule, TokenBucket.Decision decision) throws IOException {
+        writeHeaders(response, rule, decision);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(toSeconds(decision.retryAfterNanos())));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                "Se superó el límite de peticiones. Por favor, intente más tarde",
+                System.currentTimeMillis()
+        ));
+    }
+
+    private static void writeHeaders(HttpServletResponse response, CompiledRule rule, TokenBucket.Decision decision) {
+        response.setHeader("RateLimit-Policy", rule.policy());
+        response.setHeader("RateLimit-Limit", String.valueOf(decision.limit()));
+        response.setHeader("RateLimit-Remaining", String.valueOf(decision.remaining()));
+        response.setHeader("RateLimit-Reset", String.valueOf(toSeconds(decision.resetNanos())));
+    }
+
+    private static long toSeconds(long nanos) {
+        return Math.max(nanos <= 0 ? 0 : 1, TimeUnit.NANOSECONDS.toSeconds(nanos + 999_999_999L));
+    }
+
+    private record CompiledRule(RateLimitProperties.Rule rule,
+                                PathPattern pattern,
+                                ConcurrentHashMap<String, TokenBucket> userBuckets,
+                                TokenBucket[] globalStripes,
+                                String policy) {
+
+        CompiledRule(RateLimitProperties.Rule rule, PathPattern pattern, int stripes) {
+            this(rule, pattern, new ConcurrentHashMap<>(), stripes(rule, stripes),
+                    rule.userLimit() + ";w=" + rule.period().toSeconds());
+        }
+
+        TokenBucket userBucket(String key) {
+            return userBuckets.computeIfAbsent(key, k -> new TokenBucket(rule.userLimit(), rule.period()));
+        }
+
+        /**
+         * Empieza por una franja al azar y recorre las demás antes de rechazar; el rechazo
+         * informa de la franja que antes vuelve a tener fichas.
+         */
+        TokenBucket.Decision tryAcquireGlobal(long now) {
+            int start = ThreadLocalRandom.current().nextInt(globalStripes.length);
+            TokenBucket.Decision rejected = null;
+            for (int i = 0; i < globalStripes.length; i++) {
+                TokenBucket.Decision decision = globalStripes[(start + i) % globalStripes.length].tryAcquire(now);
+                if (decision.allowed()) {
+                    return decision;
+                }
+                if (rejected == null || decision.retryAfterNanos() < rejected.retryAfterNanos()) {
+                    rejected = decision;
+                }
+            }
+            return rejected;
+        }
+
+        private static TokenBucket[] stripes(RateLimitProperties.Rule rule, int stripes) {
+            int count = Math.max(1, Math.min(stripes, rule.globalLimit()));
+            TokenBucket[] buckets = new TokenBucket[count];
+            for (int i = 0; i < count; i++) {
+                int share = rule.globalLimit() / count + (i < rule.globalLimit() % count ? 1 : 0);
+                buckets[i] = new TokenBucket(share, rule.period());
+            }
+            return buckets;
+        }
+    }
+}
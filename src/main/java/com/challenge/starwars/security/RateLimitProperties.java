@@ -0,0 +1,24 @@
+package com.challenge.starwars.security;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Límites de peticiones por endpoint. Se aplica la primera regla cuyo patrón coincide con
+ * la ruta; cada regla tiene un bucket por usuario (o por IP si la petición es anónima) y
+ * uno global compartido.
+ */
+@ConfigurationProperties(prefix = "security.rate-limit")
+public record RateLimitProperties(@DefaultValue("true") boolean enabled, int globalStripes, List<Rule> rules) {
+
+    public RateLimitProperties {
+        rules = rules == null ? List.of() : List.copyOf(rules);
+        globalStripes = globalStripes > 0 ? globalStripes : Runtime.getRuntime().availableProcessors();
+    }
+
+    public record Rule(String pattern, int userLimit, int globalLimit, Duration period) {
+    }
+}
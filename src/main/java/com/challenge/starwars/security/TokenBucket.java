@@ -0,0 +1,74 @@
+package com.challenge.starwars.security;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket sin bloqueos implementado como GCRA (generic cell rate algorithm): todo el
+ * estado es el instante teórico de llegada ({@code tat}) en un {@link AtomicLong}, que se
+ * avanza con CAS. Admite {@code capacity} peticiones de ráfaga y repone {@code capacity}
+ * fichas cada {@code period}.
+ */
+public final class TokenBucket {
+
+    private final int capacity;
+    private final long intervalNanos;
+    private final long periodNanos;
+    private final AtomicLong tat = new AtomicLong(Long.MIN_VALUE);
+
+    public TokenBucket(int capacity, Duration period) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("La capacidad del token bucket debe ser positiva");
+        }
+        this.capacity = capacity;
+        this.periodNanos = period.toNanos();
+        this.intervalNanos = Math.max(1, periodNanos / capacity);
+    }
+
+    public Decision tryAcquire(long now) {
+        while (true) {
+            long current = tat.get();
+            long next = Math.max(current, now) + intervalNanos;
+            long backlog = next - now;
+
+            if (backlog > periodNanos) {
+                long remainingBacklog = Math.max(0, current - now);
+                return new Decision(false, capacity, 0, remainingBacklog, backlog - periodNanos);
+            }
+            if (tat.compareAndSet(current, next)) {
+                int remaining = (int) Math.min(capacity, (periodNanos - backlog) / intervalNanos);
+                return new Decision(true, capacity, remaining, backlog, 0);
+            }
+        }
+    }
+
+    /**
+     * Devuelve una ficha concedida por {@link #tryAcquire(long)} a una petición que
+     * finalmente se rechazó por otro motivo. Nunca deja el bucket por encima de su capacidad.
+     */
+    public void release(long now) {
+        while (true) {
+            long current = tat.get();
+            if (current - now <= 0) {
+                return;
+            }
+            if (tat.compareAndSet(current, Math.max(current - intervalNanos, now))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Un bucket está inactivo cuando ya se ha rellenado por completo y puede descartarse.
+     */
+    public boolean isIdle(long now) {
+        return tat.get() - now <= 0;
+    }
+
+    /**
+     * @param resetNanos tiempo hasta que el bucket vuelve a estar lleno
+     * @param retryAfterNanos espera mínima hasta la próxima ficha, si se rechazó
+     */
+    public record Decision(boolean allowed, int limit, int remaining, long resetNanos, long retryAfterNanos) {
+    }
+}
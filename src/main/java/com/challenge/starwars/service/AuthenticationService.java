@@ -1,6 +1,7 @@
 package com.challenge.starwars.service;
 
 import com.challenge.starwars.dto.request.AuthenticationRequest;
+import com.challenge.starwars.dto.request.RefreshTokenRequest;
 import com.challenge.starwars.dto.request.RegisterRequest;
 import com.challenge.starwars.dto.response.AuthenticationResponse;
 
@@ -9,4 +10,10 @@ public interface AuthenticationService {
     void register(RegisterRequest input) throws Exception;
 
     AuthenticationResponse login(AuthenticationRequest input);
+
+    AuthenticationResponse refresh(RefreshTokenRequest input);
+
+    void revoke(RefreshTokenRequest input);
+
+    void logout(String accessToken, RefreshTokenRequest input);
 }
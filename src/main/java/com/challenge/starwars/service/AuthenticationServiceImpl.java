@@ -3,8 +3,11 @@ package com.challenge.starwars.service;
 import com.challenge.starwars.entity.User;
 import com.challenge.starwars.repository.UserRepository;
 import com.challenge.starwars.dto.request.AuthenticationRequest;
+import com.challenge.starwars.dto.request.RefreshTokenRequest;
 import com.challenge.starwars.dto.request.RegisterRequest;
 import com.challenge.starwars.dto.response.AuthenticationResponse;
+import com.challenge.starwars.exception.InvalidRefreshTokenException;
+import io.jsonwebtoken.JwtException;
 import lombok.AllArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -28,7 +31,17 @@ public class AuthenticationServiceImpl implements AuthenticationService{
 
     private final JwtService jwtService;
 
-    @Transactional
+    private final UserCacheEvictor userCacheEvictor;
+
+    private final RefreshTokenService refreshTokenService;
+
+    private final TokenRevocationService tokenRevocationService;
+
+    /**
+     * Sin transacción propia: el hash de BCrypt puede esperar en la cola del
+     * {@code BoundedPasswordEncoder} y no debe retener una conexión JDBC mientras tanto.
+     * Sólo el alta del usuario abre una transacción corta (la de {@code save}).
+     */
     @Override
     public void register(RegisterRequest input) { // Eliminamos el 'throws Exception'
         if (userRepository.findByUsername(input.getUsername()).isPresent()) {
@@ -42,9 +55,13 @@ public class AuthenticationServiceImpl implements AuthenticationService{
                 .build();
 
         userRepository.save(user);
+        userCacheEvictor.evictAfterCommit(user.getUsername());
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Igual que el registro, la verificación de la contraseña ocurre fuera de transacción;
+     * sólo la emisión del refresh token abre una transacción corta.
+     */
     @Override
     public AuthenticationResponse login(AuthenticationRequest input) {
 
@@ -56,13 +73,64 @@ public class AuthenticationServiceImpl implements AuthenticationService{
         User user = userRepository.findByUsername(input.getUsername())
                 .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado"));
 
-        Map<String, Object> extraClaims = new HashMap<>();
-        extraClaims.put("role", user.getRole());
+        return AuthenticationResponse.builder()
+                .token(generateAccessToken(user))
+                .refreshToken(refreshTokenService.issue(user))
+                .build();
+    }
+
+    /**
+     * Renueva el access token sin verificar la contraseña: basta con un refresh token
+     * vigente, que se rota en cada uso.
+     */
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    @Override
+    public AuthenticationResponse refresh(RefreshTokenRequest input) {
+
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(input.getRefreshToken());
 
-        String jwtToken = jwtService.generateToken(extraClaims, user);
+        User user = userRepository.findByUsername(rotation.username())
+                .orElseThrow(() -> new InvalidRefreshTokenException("Refresh token inválido o expirado"));
 
         return AuthenticationResponse.builder()
-                .token(jwtToken)
+                .token(generateAccessToken(user))
+                .refreshToken(rotation.refreshToken())
                 .build();
     }
+
+    @Transactional
+    @Override
+    public void revoke(RefreshTokenRequest input) {
+
+        refreshTokenService.revoke(input.getRefreshToken());
+    }
+
+    /**
+     * Revoca el access token presentado y, si se indica, la cadena de su refresh token. Un
+     * access token ya inválido no necesita revocarse.
+     */
+    @Transactional
+    @Override
+    public void logout(String accessToken, RefreshTokenRequest input) {
+
+        if (accessToken != null) {
+            try {
+                tokenRevocationService.revoke(jwtService.verifyToken(accessToken));
+            } catch (JwtException ex) {
+                // Token expirado o manipulado: ya no da acceso.
+            }
+        }
+
+        if (input != null && input.getRefreshToken() != null && !input.getRefreshToken().isBlank()) {
+            refreshTokenService.revoke(input.getRefreshToken());
+        }
+    }
+
+    private String generateAccessToken(User user) {
+
+        Map<String, Object> extraClaims = new HashMap<>();
+        extraClaims.put("role", user.getRole());
+
+        return jwtService.generateToken(extraClaims, user);
+    }
 }
@@ -1,5 +1,6 @@
 package com.challenge.starwars.service;
 
+import io.jsonwebtoken.Claims;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Map;
@@ -7,6 +8,8 @@ import java.util.Map;
 public interface JwtService {
 
     String extractUsername(String token);
+    Claims verifyToken(String token);
     boolean isTokenValid(String token, UserDetails userDetails);
+    boolean isTokenValid(Claims claims, UserDetails userDetails);
     String generateToken(Map<String, Object> claims, UserDetails userDetails);
 }
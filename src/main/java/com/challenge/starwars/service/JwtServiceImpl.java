@@ -1,57 +1,90 @@
 package com.challenge.starwars.service;
 
+import com.challenge.starwars.cache.ExpiringCache;
+import com.challenge.starwars.security.TokenDigest;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.time.Duration;
 import java.util.Date;
 import java.util.Map;
+import java.util.UUID;
 
+/**
+ * La clave de firma y el parser se construyen una sola vez. Los tokens ya verificados se
+ * guardan en una caché acotada, indexada por el SHA-256 del token (nunca el token en
+ * claro) y con una vigencia que no supera la expiración del propio token.
+ */
 @Service
 public class JwtServiceImpl implements JwtService{
 
-    @Value("${spring.jwt.secret}")
-    private String SECRET_KEY;
+    private final long JWT_EXPIRATION;
 
-    @Value("${spring.jwt.expiration}")
-    private long JWT_EXPIRATION;
+    private final SecretKey signingKey;
 
+    private final JwtParser parser;
+
+    private final ExpiringCache<String, Claims> verifiedTokenCache;
+
+    public JwtServiceImpl(@Value("${spring.jwt.secret}") String secretKey,
+                          @Value("${spring.jwt.expiration}") long jwtExpiration,
+                          @Qualifier("verifiedTokenCache") ExpiringCache<String, Claims> verifiedTokenCache) {
+        this.JWT_EXPIRATION = jwtExpiration;
+        this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        this.verifiedTokenCache = verifiedTokenCache;
+    }
 
     @Override
     public String extractUsername(String token) {
-        return extractAllClaims(token).getSubject();
+        return verifyToken(token).getSubject();
     }
 
-    private Claims extractAllClaims(String token){
-
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    /**
+     * Verifica firma y expiración una única vez por token; las siguientes llamadas con el
+     * mismo token se resuelven desde la caché hasta que expira.
+     */
+    @Override
+    public Claims verifyToken(String token) {
+        String key = TokenDigest.sha256(token);
+        Claims cached = verifiedTokenCache.getIfPresent(key).orElse(null);
+        if (cached != null && !isExpired(cached)) {
+            return cached;
+        }
+
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        if (claims.getExpiration() != null) {
+            Duration remaining = Duration.ofMillis(claims.getExpiration().getTime() - System.currentTimeMillis());
+            verifiedTokenCache.put(key, claims, min(remaining, verifiedTokenCache.getTtl()));
+        }
+        return claims;
     }
 
     @Override
     public boolean isTokenValid(String token, UserDetails userDetails) {
-
-        final String username = extractUsername(token);
-
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return isTokenValid(verifyToken(token), userDetails);
     }
 
-    private boolean isTokenExpired(String token){
-
-        return extractExpirationDate(token).before(new Date());
+    @Override
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        return claims.getSubject() != null
+                && claims.getSubject().equals(userDetails.getUsername())
+                && !isExpired(claims);
     }
 
-    private Date extractExpirationDate(String token){
+    private boolean isExpired(Claims claims){
 
-        return extractAllClaims(token).getExpiration();
+        return claims.getExpiration() != null && claims.getExpiration().before(new Date());
     }
 
     @Override
@@ -59,15 +92,15 @@ public class JwtServiceImpl implements JwtService{
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(userDetails.getUsername())
+                .setId(UUID.randomUUID().toString())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + this.JWT_EXPIRATION))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
 
     }
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(this.SECRET_KEY);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private static Duration min(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
     }
 }
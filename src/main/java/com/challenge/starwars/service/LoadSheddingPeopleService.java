@@ -0,0 +1,71 @@
+package com.challenge.starwars.service;
+
+import com.challenge.starwars.cache.Versioned;
+import com.challenge.starwars.client.AdaptiveConcurrencyLimiter;
+import com.challenge.starwars.dto.response.PeopleBatchResponse;
+import com.challenge.starwars.dto.response.PeopleDetailResponse;
+import com.challenge.starwars.dto.response.PeoplePageResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Antepone el {@link AdaptiveConcurrencyLimiter} a {@link PeopleServiceImpl}. Cada petición
+ * se clasifica antes de admitirla según pueda resolverse sin llamar a SWAPI (personaje en
+ * caché, ID inexistente ya conocido o catálogo local cargado), para que éstas conserven su parte reservada del límite.
+ */
+@Primary
+@Service
+@ConditionalOnProperty(name = "swapi.concurrency-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class LoadSheddingPeopleService implements PeopleService {
+
+    private final PeopleServiceImpl delegate;
+
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    private final PeopleCatalog peopleCatalog;
+
+    public LoadSheddingPeopleService(PeopleServiceImpl delegate,
+                                     AdaptiveConcurrencyLimiter concurrencyLimiter,
+                                     PeopleCatalog peopleCatalog) {
+        this.delegate = delegate;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.peopleCatalog = peopleCatalog;
+    }
+
+    @Override
+    public PeopleDetailResponse getPersonById(String id) {
+        return concurrencyLimiter.execute(isServedLocally(id), () -> delegate.getPersonById(id));
+    }
+
+    @Override
+    public Versioned<PeopleDetailResponse> getVersionedPersonById(String id) {
+        return concurrencyLimiter.execute(isServedLocally(id), () -> delegate.getVersionedPersonById(id));
+    }
+
+    @Override
+    public PeoplePageResponse getPeople(String name, int page, int limit) {
+        return concurrencyLimiter.execute(peopleCatalog.isLoaded(), () -> delegate.getPeople(name, page, limit));
+    }
+
+    @Override
+    public Versioned<PeoplePageResponse> getVersionedPeople(String name, int page, int limit) {
+        return concurrencyLimiter.execute(peopleCatalog.isLoaded(), () -> delegate.getVersionedPeople(name, page, limit));
+    }
+
+    /**
+     * Un lote ocupa un único permiso: su paralelismo interno ya está acotado por
+     * {@code swapi.batch.parallelism}.
+     */
+    @Override
+    public PeopleBatchResponse getPeopleByIds(List<String> ids) {
+        boolean cached = ids != null && ids.stream().allMatch(id -> isServedLocally(id.trim()));
+        return concurrencyLimiter.execute(cached, () -> delegate.getPeopleByIds(ids));
+    }
+
+    private boolean isServedLocally(String id) {
+        return delegate.isServedLocally(id);
+    }
+}
@@ -0,0 +1,134 @@
+package com.challenge.starwars.service;
+
+import com.challenge.starwars.cache.Versioned;
+import com.challenge.starwars.dto.response.PeoplePageResponse;
+import com.challenge.starwars.dto.response.PeopleSummaryResponse;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Réplica local del catálogo de personajes de SWAPI. Se reemplaza completa en cada
+ * refresco (publicación atómica de una instantánea inmutable junto con su índice de
+ * búsqueda), por lo que las lecturas no requieren sincronización. Cada instantánea lleva
+ * una versión derivada de su contenido, a partir de la cual se calculan los ETags.
+ */
+@Component
+public class PeopleCatalog {
+
+    private static final Comparator<PeopleSummaryResponse> BY_UID = Comparator
+            .comparingLong((PeopleSummaryResponse person) -> numericUid(person.getUid()))
+            .thenComparing(PeopleSummaryResponse::getUid, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private volatile Snapshot snapshot;
+
+    public boolean isLoaded() {
+        return snapshot != null;
+    }
+
+    public Optional<Instant> getLoadedAt() {
+        Snapshot current = snapshot;
+        return current == null ? Optional.empty() : Optional.of(current.loadedAt());
+    }
+
+    /**
+     * Versión del catálogo cargado: cambia sólo si cambia algún personaje.
+     */
+    public Optional<String> getVersion() {
+        Snapshot current = snapshot;
+        return current == null ? Optional.empty() : Optional.of(current.version());
+    }
+
+    public List<PeopleSummaryResponse> getPeople() {
+        Snapshot current = snapshot;
+        return current == null ? List.of() : current.people();
+    }
+
+    /**
+     * Devuelve la página solicitada calculada en memoria, o vacío si el catálogo
+     * todavía no se cargó.
+     */
+    public Optional<PeoplePageResponse> getPage(int page, int limit) {
+        Snapshot current = snapshot;
+        return current == null ? Optional.empty() : Optional.of(page(current, page, limit));
+    }
+
+    /**
+     * Como {@link #getPage(int, int)}, pero con el ETag derivado de la versión de la misma
+     * instantánea que produjo la página, de modo que un refresco concurrente nunca empareja
+     * el contenido nuevo con la versión anterior.
+     */
+    public Optional<Versioned<PeoplePageResponse>> getVersionedPage(int page, int limit) {
+        Snapshot current = snapshot;
+        return current == null
+                ? Optional.empty()
+                : Optional.of(Versioned.of(page(current, page, limit), current.version(), "page", page, limit));
+    }
+
+    /**
+     * Busca por nombre en el índice local, o devuelve vacío si el catálogo todavía no se cargó.
+     */
+    public Optional<List<PeopleSummaryResponse>> search(String name) {
+        Snapshot current = snapshot;
+        return current == null ? Optional.empty() : Optional.of(current.searchIndex().search(name));
+    }
+
+    /**
+     * Como {@link #search(String)}, con el ETag derivado de la versión de la misma instantánea.
+     */
+    public Optional<Versioned<List<PeopleSummaryResponse>>> searchVersioned(String name) {
+        Snapshot current = snapshot;
+        return current == null
+                ? Optional.empty()
+                : Optional.of(Versioned.of(current.searchIndex().search(name), current.version(), "search", name.trim()));
+    }
+
+    public void replace(List<PeopleSummaryResponse> people) {
+        List<PeopleSummaryResponse> sorted = people.stream()
+                .sorted(BY_UID)
+                .toList();
+        Object[] parts = sorted.stream()
+                .flatMap(person -> Stream.of(person.getUid(), person.getName()))
+                .toArray();
+        this.snapshot = new Snapshot(sorted, PeopleSearchIndex.build(sorted), Versioned.etag(parts), Instant.now());
+    }
+
+    public void clear() {
+        this.snapshot = null;
+    }
+
+    private static PeoplePageResponse page(Snapshot current, int page, int limit) {
+        if (page < 1 || limit < 1) {
+            throw new IllegalArgumentException("Los parámetros page y limit deben ser mayores que cero");
+        }
+
+        List<PeopleSummaryResponse> people = current.people();
+        int total = people.size();
+        long from = (long) (page - 1) * limit;
+        List<PeopleSummaryResponse> results = from >= total
+                ? List.of()
+                : people.subList((int) from, (int) Math.min(from + limit, total));
+
+        return PeoplePageResponse.builder()
+                .totalRecords(total)
+                .totalPages((total + limit - 1) / limit)
+                .results(results)
+                .build();
+    }
+
+    private static long numericUid(String uid) {
+        try {
+            return Long.parseLong(uid);
+        } catch (NumberFormatException ex) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private record Snapshot(List<PeopleSummaryResponse> people, PeopleSearchIndex searchIndex, String version,
+                            Instant loadedAt) {
+    }
+}
@@ -0,0 +1,115 @@
+package com.challenge.starwars.service;
+
+import com.challenge.starwars.client.SwapiClient;
+import com.challenge.starwars.dto.external.SwapiPeoplePageResponse;
+import com.challenge.starwars.dto.response.PeopleSummaryResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Carga el catálogo completo de personajes al arrancar y lo refresca periódicamente
+ * en segundo plano. Si SWAPI falla se conserva la última copia válida. Con la tabla
+ * {@code people} disponible, el catálogo arranca desde ella antes de consultar SWAPI y
+ * cada listado descargado se sincroniza en la tabla. Tras cada refresco se regenera la
+ * {@link PeopleSnapshot}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "swapi.catalog.enabled", havingValue = "true", matchIfMissing = true)
+public class PeopleCatalogRefresher {
+
+    private final SwapiClient swapiClient;
+    private final PeopleCatalog peopleCatalog;
+    private final int pageSize;
+    private final PeopleStore peopleStore;
+    private final PeopleSnapshotFile peopleSnapshot;
+
+    public PeopleCatalogRefresher(SwapiClient swapiClient,
+                                  PeopleCatalog peopleCatalog,
+                                  @Value("${swapi.catalog.page-size:100}") int pageSize,
+                                  ObjectProvider<PeopleStore> peopleStore,
+                                  ObjectProvider<PeopleSnapshotFile> peopleSnapshot) {
+        this.swapiClient = swapiClient;
+        this.peopleCatalog = peopleCatalog;
+        this.pageSize = pageSize;
+        this.peopleStore = peopleStore.getIfAvailable();
+        this.peopleSnapshot = peopleSnapshot.getIfAvailable();
+    }
+
+    @Scheduled(initialDelayString = "${swapi.catalog.initial-delay:PT0S}",
+            fixedDelayString = "${swapi.catalog.refresh-interval:PT1H}")
+    public void refresh() {
+        if (!peopleCatalog.isLoaded()) {
+            loadFromStore();
+        }
+        try {
+            List<PeopleSummaryResponse> people = fetchAll();
+            peopleCatalog.replace(people);
+            log.info("Catálogo de personajes actualizado: {} registros", people.size());
+            syncStore(people);
+            if (peopleSnapshot != null) {
+                peopleSnapshot.rebuild();
+            }
+        } catch (RuntimeException ex) {
+            log.warn("No se pudo actualizar el catálogo de personajes: {}", ex.getMessage());
+        }
+    }
+
+    private void loadFromStore() {
+        if (peopleStore == null) {
+            return;
+        }
+        try {
+            List<PeopleSummaryResponse> people = peopleStore.findAllSummaries();
+            if (!people.isEmpty()) {
+                peopleCatalog.replace(people);
+                log.info("Catálogo de personajes cargado desde la réplica local: {} registros", people.size());
+            }
+        } catch (RuntimeException ex) {
+            log.warn("No se pudo cargar el catálogo desde la réplica local: {}", ex.getMessage());
+        }
+    }
+
+    private void syncStore(List<PeopleSummaryResponse> people) {
+        if (peopleStore == null) {
+            return;
+        }
+        try {
+            PeopleStore.SyncResult result = peopleStore.syncSummaries(people);
+            log.info("Réplica local de personajes sincronizada: {} actualizados, {} eliminados",
+                    result.upserted(), result.deleted());
+        } catch (RuntimeException ex) {
+            log.warn("No se pudo sincronizar la réplica local de personajes: {}", ex.getMessage());
+        }
+    }
+
+    List<PeopleSummaryResponse> fetchAll() {
+        List<PeopleSummaryResponse> people = new ArrayList<>();
+        int page = 1;
+        int totalPages;
+
+        do {
+            SwapiPeoplePageResponse response = swapiClient.getPeoplePage(page, pageSize);
+            if (response == null || response.getResults() == null) {
+                throw new IllegalStateException("Respuesta vacía al recuperar la página " + page + " del catálogo");
+            }
+
+            response.getResults().forEach(item -> people.add(PeopleSummaryResponse.builder()
+                    .uid(item.getUid())
+                    .name(item.getName())
+                    .build()));
+
+            totalPages = response.getTotal_pages() == null ? page : response.getTotal_pages();
+            page++;
+        } while (page <= totalPages);
+
+        return people;
+    }
+}
@@ -0,0 +1,131 @@
+package com.challenge.starwars.service;
+
+import com.challenge.starwars.cache.ExpiringCache;
+import com.challenge.starwars.cache.ExpiringCache.HotEntry;
+import com.challenge.starwars.cache.Versioned;
+import com.challenge.starwars.dto.response.PeopleDetailResponse;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Refresco anticipado de los personajes más consultados. En cada pasada toma de la caché
+ * {@code people.detail} los que vencen dentro de {@code swapi.cache.people.refresh-ahead.window}
+ * con al menos {@code min-frequency} accesos recientes (según su sketch count-min), como
+ * mucho {@code max-per-run}, y los recarga en segundo plano tras un retraso aleatorio de
+ * hasta {@code jitter} (nunca más de la mitad de lo que les queda), para que ni las claves ni
+ * las réplicas salgan a SWAPI a la vez. Las claves poco consultadas vencen con normalidad.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "swapi.cache.people.refresh-ahead.enabled", havingValue = "true", matchIfMissing = true)
+public class PeopleRefreshAhead implements MeterBinder {
+
+    private final ExpiringCache<String, Versioned<PeopleDetailResponse>> peopleDetailCache;
+    private final PeopleServiceImpl peopleService;
+    private final ExecutorService refreshExecutor;
+    private final Duration window;
+    private final Duration jitter;
+    private final int minFrequency;
+    private final int maxPerRun;
+
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder scheduled = new LongAdder();
+    private final LongAdder refreshed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    public PeopleRefreshAhead(ExpiringCache<String, Versioned<PeopleDetailResponse>> peopleDetailCache,
+                              PeopleServiceImpl peopleService,
+                              @Qualifier("cacheRefreshExecutor") ExecutorService refreshExecutor,
+                              @Value("${swapi.cache.people.refresh-ahead.window:PT2M}") Duration window,
+                              @Value("${swapi.cache.people.refresh-ahead.jitter:PT30S}") Duration jitter,
+                              @Value("${swapi.cache.people.refresh-ahead.min-frequency:3}") int minFrequency,
+                              @Value("${swapi.cache.people.refresh-ahead.max-per-run:20}") int maxPerRun) {
+        this.peopleDetailCache = peopleDetailCache;
+        this.peopleService = peopleService;
+        this.refreshExecutor = refreshExecutor;
+        this.window = window;
+        this.jitter = jitter;
+        this.minFrequency = minFrequency;
+        this.maxPerRun = maxPerRun;
+    }
+
+    @Scheduled(initialDelayString = "${swapi.cache.people.refresh-ahead.interval:PT15S}",
+            fixedDelayString = "${swapi.cache.people.refresh-ahead.interval:PT15S}")
+    public void refreshHotEntries() {
+        for (HotEntry<String> entry : peopleDetailCache.hottestExpiringWithin(window, minFrequency, maxPerRun)) {
+            String id = entry.key();
+            if (!pending.add(id)) {
+                continue;
+            }
+            Duration delay = jitter(entry.timeToExpiry());
+            try {
+                refreshExecutor.execute(() -> refresh(id, delay));
+                scheduled.increment();
+            } catch (RuntimeException ex) {
+                pending.remove(id);
+                log.warn("No se pudo programar el refresco anticipado del personaje {}: {}", id, ex.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        FunctionCounter.builder("people.refresh.ahead", scheduled, LongAdder::sum)
+                .tag("result", "scheduled")
+                .description("Refrescos anticipados de personajes en caché")
+                .register(registry);
+
+        FunctionCounter.builder("people.refresh.ahead", refreshed, LongAdder::sum)
+                .tag("result", "refreshed")
+                .description("Refrescos anticipados de personajes en caché")
+                .register(registry);
+
+        FunctionCounter.builder("people.refresh.ahead", failed, LongAdder::sum)
+                .tag("result", "failed")
+                .description("Refrescos anticipados de personajes en caché")
+                .register(registry);
+    }
+
+    /**
+     * Retraso aleatorio en [0, min(jitter, tiempo restante / 2)).
+     */
+    Duration jitter(Duration timeToExpiry) {
+        long bound = Math.min(jitter.toNanos(), timeToExpiry.toNanos() / 2);
+        return bound <= 0 ? Duration.ZERO : Duration.ofNanos(ThreadLocalRandom.current().nextLong(bound));
+    }
+
+    /**
+     * Un fallo no invalida la entrada: sigue vigente hasta su TTL y, después, durante la
+     * ventana de stale-while-revalidate.
+     */
+    private void refresh(String id, Duration delay) {
+        try {
+            Thread.sleep(delay);
+            peopleService.refreshPerson(id);
+            refreshed.increment();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException ex) {
+            failed.increment();
+            log.debug("No se pudo refrescar por adelantado el personaje {}: {}", id, ex.getMessage());
+        } finally {
+            pending.remove(id);
+        }
+    }
+}
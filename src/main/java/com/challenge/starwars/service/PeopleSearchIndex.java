@@ -0,0 +1,160 @@
+package com.challenge.starwars.service;
+
+import com.challenge.starwars.dto.response.PeopleSummaryResponse;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Índice inmutable de n-gramas (1 a 3 caracteres) sobre los nombres del catálogo.
+ * Resuelve búsquedas por subcadena sin distinguir mayúsculas ni acentos: las consultas
+ * cortas se responden directamente con la lista del n-grama y las largas intersecando
+ * sus trigramas y verificando la coincidencia sobre los candidatos.
+ */
+public final class PeopleSearchIndex {
+
+    private static final int MAX_GRAM = 3;
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    private final List<PeopleSummaryResponse> people;
+    private final String[] normalizedNames;
+    private final Map<String, int[]> postings;
+
+    private PeopleSearchIndex(List<PeopleSummaryResponse> people, String[] normalizedNames, Map<String, int[]> postings) {
+        this.people = people;
+        this.normalizedNames = normalizedNames;
+        this.postings = postings;
+    }
+
+    public static PeopleSearchIndex build(List<PeopleSummaryResponse> people) {
+        String[] normalizedNames = new String[people.size()];
+        Map<String, List<Integer>> grams = new HashMap<>();
+
+        for (int doc = 0; doc < people.size(); doc++) {
+            String name = normalize(people.get(doc).getName());
+            normalizedNames[doc] = name;
+
+            Set<String> docGrams = new LinkedHashSet<>();
+            for (int size = 1; size <= MAX_GRAM; size++) {
+                for (int start = 0; start + size <= name.length(); start++) {
+                    docGrams.add(name.substring(start, start + size));
+                }
+            }
+            for (String gram : docGrams) {
+                grams.computeIfAbsent(gram, key -> new ArrayList<>()).add(doc);
+            }
+        }
+
+        Map<String, int[]> postings = new HashMap<>(grams.size() * 2);
+        grams.forEach((gram, docs) -> postings.put(gram, docs.stream().mapToInt(Integer::intValue).toArray()));
+
+        return new PeopleSearchIndex(people, normalizedNames, postings);
+    }
+
+    /**
+     * Devuelve los personajes cuyo nombre contiene la consulta, ordenados por relevancia:
+     * coincidencia exacta, prefijo del nombre, prefijo de una palabra y por último
+     * subcadena. A igual relevancia gana el nombre más corto y luego el orden del catálogo.
+     */
+    public List<PeopleSummaryResponse> search(String query) {
+        String normalizedQuery = normalize(query);
+        if (normalizedQuery.isEmpty()) {
+            return List.of();
+        }
+
+        int[] candidates = candidates(normalizedQuery);
+        List<Match> matches = new ArrayList<>(candidates.length);
+        for (int doc : candidates) {
+            String name = normalizedNames[doc];
+            int position = name.indexOf(normalizedQuery);
+            if (position >= 0) {
+                matches.add(new Match(doc, rank(name, normalizedQuery, position), name.length()));
+            }
+        }
+
+        matches.sort(Comparator.comparingInt(Match::rank)
+                .thenComparingInt(Match::length)
+                .thenComparingInt(Match::doc));
+
+        return matches.stream()
+                .map(match -> people.get(match.doc()))
+                .toList();
+    }
+
+    public int size() {
+        return people.size();
+    }
+
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        String plain = DIACRITICS.matcher(decomposed).replaceAll("");
+        return SPACES.matcher(plain.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    private int[] candidates(String query) {
+        if (query.length() <= MAX_GRAM) {
+            return postings.getOrDefault(query, new int[0]);
+        }
+
+        int[] result = null;
+        for (int start = 0; start + MAX_GRAM <= query.length(); start++) {
+            int[] docs = postings.get(query.substring(start, start + MAX_GRAM));
+            if (docs == null) {
+                return new int[0];
+            }
+            result = result == null ? docs : intersect(result, docs);
+            if (result.length == 0) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    private static int[] intersect(int[] left, int[] right) {
+        int[] out = new int[Math.min(left.length, right.length)];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] == right[j]) {
+                out[n++] = left[i];
+                i++;
+                j++;
+            } else if (left[i] < right[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    private static int rank(String name, String query, int position) {
+        if (name.equals(query)) {
+            return 0;
+        }
+        if (position == 0) {
+            return 1;
+        }
+        if (name.charAt(position - 1) == ' ' || name.indexOf(" " + query) >= 0) {
+            return 2;
+        }
+        return 3;
+    }
+
+    private record Match(int doc, int rank, int length) {
+    }
+}
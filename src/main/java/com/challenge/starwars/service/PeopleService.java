@@ -1,14 +1,24 @@
 package com.challenge.starwars.service;
 
+import com.challenge.starwars.cache.Versioned;
+import com.challenge.starwars.dto.response.PeopleBatchResponse;
 import com.challenge.starwars.dto.response.PeopleDetailResponse;
 import com.challenge.starwars.dto.response.PeoplePageResponse;
 
+import java.util.List;
+
 public interface PeopleService {
 
 
     PeopleDetailResponse getPersonById(String id);
 
+    Versioned<PeopleDetailResponse> getVersionedPersonById(String id);
+
     PeoplePageResponse getPeople(String name, int page, int limit);
 
+    Versioned<PeoplePageResponse> getVersionedPeople(String name, int page, int limit);
+
+    PeopleBatchResponse getPeopleByIds(List<String> ids);
+
 
 }
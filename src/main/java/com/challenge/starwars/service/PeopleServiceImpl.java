@@ -1,43 +1,298 @@
 package com.challenge.starwars.service;
 
+import com.challenge.starwars.cache.DiskCache;
+import com.challenge.starwars.cache.ExpiringCache;
+import com.challenge.starwars.cache.SharedCache;
+import com.challenge.starwars.cache.Versioned;
+import com.challenge.starwars.client.SwapiClient;
 import com.challenge.starwars.dto.external.SwapiPeoplePageResponse;
 import com.challenge.starwars.dto.external.SwapiPeopleSearchResponse;
 import com.challenge.starwars.dto.external.SwapiPeopleSingleResponse;
+import com.challenge.starwars.dto.response.ErrorResponse;
+import com.challenge.starwars.dto.response.PeopleBatchResponse;
 import com.challenge.starwars.dto.response.PeopleDetailResponse;
 import com.challenge.starwars.dto.response.PeoplePageResponse;
 import com.challenge.starwars.dto.response.PeopleSummaryResponse;
 import com.challenge.starwars.exception.ResourceNotFoundException;
-import org.springframework.beans.factory.annotation.Autowired;
+import com.challenge.starwars.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestClient;
 
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
+@Slf4j
 @Service
-public class PeopleServiceImpl implements PeopleService{
+public class PeopleServiceImpl implements PeopleService, MeterBinder {
 
-    @Autowired
-    private final RestClient restClient;
+    /**
+     * Los IDs de SWAPI son enteros positivos; cualquier otra cosa no existe y no merece
+     * una llamada remota.
+     */
+    private static final Pattern PERSON_ID = Pattern.compile("[1-9][0-9]{0,8}");
 
-    public PeopleServiceImpl(@Qualifier("swapiRestClient") RestClient restClient) {
-        this.restClient = restClient;
+    private final SwapiClient swapiClient;
+
+    private final ExpiringCache<String, Versioned<PeopleDetailResponse>> peopleDetailCache;
+
+    private final DiskCache<PeopleDetailResponse> peopleDetailDiskCache;
+
+    private final SharedCache<PeopleDetailResponse> peopleDetailSharedCache;
+
+    private final ExpiringCache<String, Boolean> peopleNotFoundCache;
+
+    private final PeopleCatalog peopleCatalog;
+
+    private final PeopleStore peopleStore;
+
+    private final PeopleSnapshotFile peopleSnapshot;
+
+    private final int batchMaxIds;
+
+    private final int batchParallelism;
+
+    private final LongAdder invalidIds = new LongAdder();
+    private final LongAdder upstreamNotFound = new LongAdder();
+    private final LongAdder cachedNotFound = new LongAdder();
+
+    public PeopleServiceImpl(SwapiClient swapiClient,
+                             ExpiringCache<String, Versioned<PeopleDetailResponse>> peopleDetailCache,
+                             @Qualifier("peopleNotFoundCache") ExpiringCache<String, Boolean> peopleNotFoundCache,
+                             PeopleCatalog peopleCatalog,
+                             @Value("${swapi.batch.max-ids:50}") int batchMaxIds,
+                             @Value("${swapi.batch.parallelism:8}") int batchParallelism,
+                             ObjectProvider<PeopleStore> peopleStore,
+                             ObjectProvider<PeopleSnapshotFile> peopleSnapshot,
+                             ObjectProvider<DiskCache<PeopleDetailResponse>> peopleDetailDiskCache,
+                             ObjectProvider<SharedCache<PeopleDetailResponse>> peopleDetailSharedCache) {
+        this.swapiClient = swapiClient;
+        this.peopleDetailCache = peopleDetailCache;
+        this.peopleNotFoundCache = peopleNotFoundCache;
+        this.peopleCatalog = peopleCatalog;
+        this.batchMaxIds = batchMaxIds;
+        this.batchParallelism = batchParallelism;
+        this.peopleStore = peopleStore.getIfAvailable();
+        this.peopleSnapshot = peopleSnapshot.getIfAvailable();
+        this.peopleDetailDiskCache = peopleDetailDiskCache.getIfAvailable();
+        this.peopleDetailSharedCache = peopleDetailSharedCache.getIfAvailable();
+    }
+
+    /**
+     * Cuando otra réplica cambia un personaje en la caché compartida, se descartan las
+     * copias locales (heap y fichero) para que la siguiente lectura lo traiga de nuevo, y
+     * el valor nuevo se copia a la tabla {@code people} para que esta no siga sirviendo el
+     * anterior si la caché compartida deja de estar disponible.
+     */
+    @PostConstruct
+    void subscribeToInvalidations() {
+        if (peopleDetailSharedCache == null) {
+            return;
+        }
+        peopleDetailSharedCache.onInvalidation(id -> {
+            peopleDetailCache.invalidate(id);
+            if (peopleDetailDiskCache != null) {
+                peopleDetailDiskCache.invalidate(id);
+            }
+            if (peopleStore != null) {
+                peopleDetailSharedCache.get(id).ifPresent(person -> saveDetails(id, person));
+            }
+        });
     }
 
     public PeopleDetailResponse getPersonById(String id) {
+        return getVersionedPersonById(id).value();
+    }
+
+    /**
+     * El ETag se calcula al cargar el personaje y se guarda junto a él en la caché, por lo
+     * que una petición condicional sobre un personaje cacheado no llama a SWAPI ni serializa.
+     * Los IDs con formato inválido y los que SWAPI ya informó como inexistentes (durante
+     * {@code swapi.cache.people-not-found.ttl}) se responden con 404 sin llamar a SWAPI.
+     */
+    @Override
+    public Versioned<PeopleDetailResponse> getVersionedPersonById(String id) {
+        if (!isValidId(id)) {
+            invalidIds.increment();
+            throw notFound(id);
+        }
+        if (peopleNotFoundCache.getIfPresent(id).isPresent()) {
+            cachedNotFound.increment();
+            throw notFound(id);
+        }
+        try {
+            return peopleDetailCache.get(id, this::fetchPersonById, this::fetchUpstreamPerson);
+        } catch (ResourceNotFoundException ex) {
+            upstreamNotFound.increment();
+            peopleNotFoundCache.put(id, Boolean.TRUE);
+            throw ex;
+        } catch (ServiceUnavailableException ex) {
+            return peopleDetailCache.getLastKnown(id)
+                    .map(person -> {
+                        log.debug("SWAPI no disponible, se sirve la última versión conocida del personaje {}", id);
+                        return person;
+                    })
+                    .orElseThrow(() -> ex);
+        }
+    }
+
+    /**
+     * Indica si el personaje puede responderse sin llamar a SWAPI: está en caché, ya se sabe
+     * que no existe o su ID no es válido.
+     */
+    boolean isServedLocally(String id) {
+        return !isValidId(id)
+                || peopleDetailCache.getIfPresent(id).isPresent()
+                || peopleNotFoundCache.getIfPresent(id).isPresent()
+                || (peopleDetailDiskCache != null && peopleDetailDiskCache.contains(id))
+                || snapshot().map(snapshot -> snapshot.hasDetails(id)).orElse(false);
+    }
+
+    /**
+     * Recarga el personaje desde SWAPI antes de que venza su entrada, sin contarlo como
+     * acceso (ver {@link PeopleRefreshAhead}). Si SWAPI falla, la entrada actual se mantiene
+     * hasta su vencimiento.
+     */
+    void refreshPerson(String id) {
+        peopleDetailCache.put(id, fetchUpstreamPerson(id));
+    }
 
-        SwapiPeopleSingleResponse swapiResponse = restClient.get()
-                .uri("/people/{id}", id)
-                .retrieve()
-                .onStatus(status -> status.is4xxClientError(), (request, response) -> {
-                    throw new ResourceNotFoundException("No se encontró el personaje con ID: " + id);
-                })
-                .onStatus(status -> status.is5xxServerError(), (request, response) -> {
-                    throw new RuntimeException("El servicio de Star Wars no está disponible");
-                })
-                .body(SwapiPeopleSingleResponse.class);
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        FunctionCounter.builder("people.not.found", invalidIds, LongAdder::sum)
+                .tag("reason", "invalid_id")
+                .description("Consultas de personajes respondidas con 404")
+                .register(registry);
+
+        FunctionCounter.builder("people.not.found", upstreamNotFound, LongAdder::sum)
+                .tag("reason", "upstream")
+                .description("Consultas de personajes respondidas con 404")
+                .register(registry);
+
+        FunctionCounter.builder("people.not.found", cachedNotFound, LongAdder::sum)
+                .tag("reason", "cached")
+                .description("Consultas de personajes respondidas con 404")
+                .register(registry);
+    }
+
+    private static boolean isValidId(String id) {
+        return id != null && PERSON_ID.matcher(id).matches();
+    }
+
+    private static ResourceNotFoundException notFound(String id) {
+        return new ResourceNotFoundException("No se encontró el personaje con ID: " + id);
+    }
+
+    /**
+     * Carga del primer nivel de caché: el detalle se busca en el segundo nivel (fichero
+     * mapeado), en la caché compartida entre réplicas, en la instantánea y en la tabla
+     * {@code people}; si no está en ninguno, se pide a SWAPI y se guarda en la tabla y en la
+     * caché compartida. La caché compartida va antes que la instantánea y la tabla porque es
+     * la única que recibe los cambios de las demás réplicas; el segundo nivel se invalida
+     * con ellos. Lo que no estaba en esta réplica se copia al segundo nivel. Un fallo de la
+     * base de datos o de la caché compartida no impide responder.
+     */
+    private Versioned<PeopleDetailResponse> fetchPersonById(String id) {
+        Optional<PeopleDetailResponse> onDisk = findOnDisk(id);
+        if (onDisk.isPresent()) {
+            return versioned(onDisk.get());
+        }
+
+        Optional<PeopleDetailResponse> shared = findShared(id);
+        if (shared.isEmpty()) {
+            Optional<PeopleDetailResponse> stored = snapshot().flatMap(snapshot -> snapshot.findPerson(id))
+                    .or(() -> findStoredDetails(id));
+            if (stored.isPresent()) {
+                return versioned(stored.get());
+            }
+        }
+
+        PeopleDetailResponse person = shared.orElseGet(() -> fetchRemotePerson(id));
+        if (peopleDetailDiskCache != null) {
+            peopleDetailDiskCache.put(id, person);
+        }
+        return versioned(person);
+    }
+
+    /**
+     * Recarga desde SWAPI usada por la revalidación (stale-while-revalidate) y el refresco
+     * anticipado. Los niveles locales no se consultan, porque podrían devolver la misma
+     * copia que se quiere renovar; el resultado se escribe en la caché compartida, la tabla
+     * {@code people} y el segundo nivel.
+     */
+    private Versioned<PeopleDetailResponse> fetchUpstreamPerson(String id) {
+        PeopleDetailResponse person = fetchRemotePerson(id);
+        if (peopleDetailDiskCache != null) {
+            peopleDetailDiskCache.put(id, person);
+        }
+        return versioned(person);
+    }
+
+    private PeopleDetailResponse fetchRemotePerson(String id) {
+        PeopleDetailResponse person = toPersonDetail(id, swapiClient.getPerson(id));
+        if (peopleDetailSharedCache != null) {
+            peopleDetailSharedCache.put(id, person);
+        }
+        if (peopleStore != null) {
+            saveDetails(id, person);
+        }
+        return person;
+    }
+
+    private void saveDetails(String id, PeopleDetailResponse person) {
+        try {
+            peopleStore.saveDetails(Map.of(id, person));
+        } catch (DataAccessException ex) {
+            log.warn("No se pudo guardar el personaje {} en la réplica local: {}", id, ex.getMessage());
+        }
+    }
 
+    private Optional<PeopleDetailResponse> findOnDisk(String id) {
+        return peopleDetailDiskCache == null ? Optional.empty() : peopleDetailDiskCache.get(id);
+    }
+
+    private Optional<PeopleDetailResponse> findShared(String id) {
+        return peopleDetailSharedCache == null ? Optional.empty() : peopleDetailSharedCache.get(id);
+    }
+
+    private Optional<PeopleSnapshot> snapshot() {
+        return peopleSnapshot == null ? Optional.empty() : peopleSnapshot.get();
+    }
+
+    private Optional<PeopleDetailResponse> findStoredDetails(String id) {
+        if (peopleStore == null) {
+            return Optional.empty();
+        }
+        try {
+            return peopleStore.findDetails(id);
+        } catch (DataAccessException ex) {
+            log.warn("No se pudo leer el personaje {} de la réplica local: {}", id, ex.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    static PeopleDetailResponse toPersonDetail(String id, SwapiPeopleSingleResponse swapiResponse) {
         if (swapiResponse == null || swapiResponse.getResult() == null) {
             throw new ResourceNotFoundException("La respuesta de la API externa para el ID " + id + " está vacía");
         }
@@ -52,6 +307,83 @@ public class PeopleServiceImpl implements PeopleService{
                 .build();
     }
 
+    private static Versioned<PeopleDetailResponse> versioned(PeopleDetailResponse person) {
+        return Versioned.of(person, person.getName(), person.getGender(), person.getHeight(), person.getUrl());
+    }
+
+    /**
+     * Resuelve varios personajes en paralelo (hilos virtuales con un máximo de
+     * {@code swapi.batch.parallelism} consultas simultáneas). Los fallos individuales se
+     * informan por ID en {@code errors} sin invalidar el resto del lote.
+     */
+    @Override
+    public PeopleBatchResponse getPeopleByIds(List<String> ids) {
+        List<String> uniqueIds = ids == null ? List.of() : ids.stream()
+                .map(String::trim)
+                .filter(id -> !id.isEmpty())
+                .collect(LinkedHashSet<String>::new, LinkedHashSet::add, LinkedHashSet::addAll)
+                .stream()
+                .toList();
+
+        if (uniqueIds.isEmpty()) {
+            throw new IllegalArgumentException("Debe indicar al menos un ID");
+        }
+        if (uniqueIds.size() > batchMaxIds) {
+            throw new IllegalArgumentException("No se pueden consultar más de " + batchMaxIds + " IDs por lote");
+        }
+
+        Map<String, Future<PeopleDetailResponse>> futures = new LinkedHashMap<>();
+        Semaphore permits = new Semaphore(batchParallelism);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (String id : uniqueIds) {
+                futures.put(id, executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        return getPersonById(id);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+        }
+
+        Map<String, PeopleDetailResponse> results = new LinkedHashMap<>();
+        Map<String, ErrorResponse> errors = new LinkedHashMap<>();
+
+        futures.forEach((id, future) -> {
+            try {
+                results.put(id, future.get());
+            } catch (ExecutionException ex) {
+                errors.put(id, toBatchError(id, ex.getCause()));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                errors.put(id, toBatchError(id, ex));
+            }
+        });
+
+        return PeopleBatchResponse.builder()
+                .results(results)
+                .errors(errors)
+                .build();
+    }
+
+    private ErrorResponse toBatchError(String id, Throwable cause) {
+        if (cause instanceof ResourceNotFoundException) {
+            return new ErrorResponse(HttpStatus.NOT_FOUND.value(), cause.getMessage(), System.currentTimeMillis());
+        }
+        if (cause instanceof ServiceUnavailableException) {
+            return new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE.value(), cause.getMessage(), System.currentTimeMillis());
+        }
+
+        log.warn("Error al resolver el personaje {} dentro de un lote: {}", id, cause.toString());
+        return new ErrorResponse(
+                HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                "Error interno en el servidor. Por favor, intente más tarde",
+                System.currentTimeMillis()
+        );
+    }
+
     @Override
     public PeoplePageResponse getPeople(String name, int page, int limit) {
         if (name != null && !name.isBlank()) {
@@ -60,30 +392,51 @@ public class PeopleServiceImpl implements PeopleService{
         return getPagedPeople(page, limit);
     }
 
-    private PeoplePageResponse getPagedPeople(int page, int limit) {
-        String url = buildPaginationUrl(page, limit);
-        SwapiPeoplePageResponse swapiResponse = restClient.get()
-                .uri(url)
-                .retrieve()
+    /**
+     * Con el catálogo cargado el ETag se deriva de su versión y de los parámetros, sin
+     * recorrer el resultado; versión y resultado salen de la misma instantánea del catálogo.
+     * Sólo las respuestas servidas fuera del catálogo se etiquetan por contenido.
+     */
+    @Override
+    public Versioned<PeoplePageResponse> getVersionedPeople(String name, int page, int limit) {
+        boolean search = name != null && !name.isBlank();
+        Optional<Versioned<PeoplePageResponse>> cataloged = search
+                ? peopleCatalog.searchVersioned(name)
+                        .map(found -> new Versioned<>(mapSearchResultsToPageDto(found.value()), found.etag()))
+                : peopleCatalog.getVersionedPage(page, limit);
+        if (cataloged.isPresent()) {
+            return cataloged.get();
+        }
 
-                .onStatus(status -> status.isError(), (request, response) -> {
-                    throw new RuntimeException("Error al recuperar lista paginada de Star Wars");
-                })
-                .body(SwapiPeoplePageResponse.class);
+        PeoplePageResponse response = getPeople(name, page, limit);
+        Object[] parts = Stream.concat(
+                        Stream.of(response.getTotalRecords(), response.getTotalPages()),
+                        response.getResults().stream().flatMap(person -> Stream.of(person.getUid(), person.getName())))
+                .toArray();
+        return Versioned.of(response, parts);
+    }
 
-        return mapToPageDto(swapiResponse);
+    /**
+     * Orden de consulta: catálogo en memoria, instantánea mapeada, tabla {@code people} y,
+     * si ninguno tiene datos, SWAPI.
+     */
+    private PeoplePageResponse getPagedPeople(int page, int limit) {
+        return peopleCatalog.getPage(page, limit)
+                .or(() -> snapshot().map(snapshot -> snapshot.getPage(page, limit)))
+                .or(() -> peopleStore == null ? Optional.empty() : peopleStore.getPage(page, limit))
+                .orElseGet(() -> mapToPageDto(swapiClient.getPeoplePage(page, limit)));
     }
 
     private PeoplePageResponse searchPeopleByName(String name) {
-        String url = buildSearchUrl(name);
-        SwapiPeopleSearchResponse searchResponse = restClient.get()
-                .uri(url)
-                .retrieve()
+        return peopleCatalog.search(name)
+                .or(() -> snapshot().map(snapshot -> snapshot.search(name)))
+                .or(() -> peopleStore == null ? Optional.empty() : peopleStore.search(name))
+                .map(this::mapSearchResultsToPageDto)
+                .orElseGet(() -> searchRemotePeopleByName(name));
+    }
 
-                .onStatus(status -> status.isError(), (request, response) -> {
-                    throw new RuntimeException("Error en la búsqueda por nombre en la API externa");
-                })
-                .body(SwapiPeopleSearchResponse.class);
+    private PeoplePageResponse searchRemotePeopleByName(String name) {
+        SwapiPeopleSearchResponse searchResponse = swapiClient.searchPeople(name);
 
         if (searchResponse == null || searchResponse.getResult() == null || searchResponse.getResult().isEmpty()) {
             return createEmptyPageDto();
@@ -92,14 +445,6 @@ public class PeopleServiceImpl implements PeopleService{
         return mapSearchToPageDto(searchResponse);
     }
 
-    private String buildPaginationUrl(int page, int limit) {
-        return String.format("/people?page=%d&limit=%d", page, limit);
-    }
-
-    private String buildSearchUrl(String name) {
-        return "/people/?name=" + name.trim();
-    }
-
     private PeoplePageResponse mapToPageDto(SwapiPeoplePageResponse swapiResponse) {
 
         if (swapiResponse == null || swapiResponse.getResults() == null) {
@@ -125,13 +470,21 @@ public class PeopleServiceImpl implements PeopleService{
         List<PeopleSummaryResponse> results = searchResponse.getResult().stream()
                 .map(item -> PeopleSummaryResponse.builder()
                         .uid(item.getUid())
-
-                        .name(item.getProperties() != null && item.getProperties().get("name") != null
-                                ? item.getProperties().get("name").toString() // Convertimos Object a String
+                        .name(item.getProperties() != null && item.getProperties().getName() != null
+                                ? item.getProperties().getName()
                                 : "Unknown")
                         .build())
                 .toList();
 
+        return mapSearchResultsToPageDto(results);
+    }
+
+    private PeoplePageResponse mapSearchResultsToPageDto(List<PeopleSummaryResponse> results) {
+
+        if (results.isEmpty()) {
+            return createEmptyPageDto();
+        }
+
         return PeoplePageResponse.builder()
                 .totalRecords(results.size())
                 .totalPages(1)
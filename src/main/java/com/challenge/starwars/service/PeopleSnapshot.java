@@ -0,0 +1,270 @@
+package com.challenge.starwars.service;
+
+import com.challenge.starwars.dto.response.PeopleDetailResponse;
+import com.challenge.starwars.dto.response.PeoplePageResponse;
+import com.challenge.starwars.dto.response.PeopleSummaryResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.zip.CRC32C;
+
+/**
+ * Instantánea binaria del catálogo de personajes, pensada para leerse mapeada en memoria
+ * sin deserializar nada al arrancar. Formato (big-endian):
+ * <pre>
+ * cabecera (32 bytes): magic "SWPS" | versión | nº de registros | tamaño del pool
+ *                      | creación (epoch ms) | CRC32C de todo lo que sigue
+ * índice: un registro de {@value #RECORD_SIZE} bytes por personaje, ordenado por uid:
+ *         uid | flags | (offset, longitud) de nombre, nombre normalizado, género, altura y url
+ * pool:   cadenas UTF-8 concatenadas
+ * </pre>
+ * Las búsquedas por uid son binarias sobre el índice y las cadenas se decodifican sólo al
+ * devolverlas. Una cabecera, tamaño o checksum incorrectos hacen fallar {@link #open(Path)}.
+ */
+public final class PeopleSnapshot {
+
+    static final int MAGIC = 0x53575053;
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_SIZE = 32;
+    static final int RECORD_SIZE = 8 + 5 * 8;
+
+    private static final int FLAG_DETAILS = 1;
+    private static final int NAME = 0;
+    private static final int NORMALIZED_NAME = 1;
+    private static final int GENDER = 2;
+    private static final int HEIGHT = 3;
+    private static final int URL = 4;
+
+    private final ByteBuffer buffer;
+    private final int count;
+    private final int poolStart;
+    private final Instant createdAt;
+
+    private PeopleSnapshot(ByteBuffer buffer, int count, int poolStart, Instant createdAt) {
+        this.buffer = buffer;
+        this.count = count;
+        this.poolStart = poolStart;
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * Personaje de la instantánea; los campos de detalle son {@code null} si
+     * {@code hasDetails} es falso.
+     */
+    public record Entry(int uid, String name, String gender, String height, String url, boolean hasDetails) {
+    }
+
+    public static PeopleSnapshot open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                throw new IOException("Tamaño de instantánea inválido: " + size + " bytes");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            if (buffer.getInt(0) != MAGIC) {
+                throw new IOException("El fichero no es una instantánea de personajes");
+            }
+            int version = buffer.getInt(4);
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Versión de instantánea no soportada: " + version);
+            }
+            int count = buffer.getInt(8);
+            int poolSize = buffer.getInt(12);
+            long expectedSize = HEADER_SIZE + (long) count * RECORD_SIZE + poolSize;
+            if (count < 0 || poolSize < 0 || expectedSize != size) {
+                throw new IOException("Instantánea truncada o con cabecera inconsistente");
+            }
+
+            CRC32C crc = new CRC32C();
+            crc.update(buffer.slice(HEADER_SIZE, (int) size - HEADER_SIZE));
+            if (crc.getValue() != buffer.getLong(24)) {
+                throw new IOException("El checksum de la instantánea no coincide");
+            }
+
+            return new PeopleSnapshot(buffer, count, HEADER_SIZE + count * RECORD_SIZE,
+                    Instant.ofEpochMilli(buffer.getLong(16)));
+        }
+    }
+
+    /**
+     * Escribe la instantánea en un fichero temporal del mismo directorio, lo sincroniza con
+     * el disco y lo renombra de forma atómica sobre {@code target}: un lector nunca ve un
+     * fichero a medio escribir.
+     */
+    public static void write(Path target, List<Entry> entries) throws IOException {
+        TreeMap<Integer, Entry> byUid = new TreeMap<>();
+        entries.forEach(entry -> byUid.putIfAbsent(entry.uid(), entry));
+
+        ByteBuffer index = ByteBuffer.allocate(byUid.size() * RECORD_SIZE);
+        ByteArrayOutputStream pool = new ByteArrayOutputStream();
+        for (Entry entry : byUid.values()) {
+            index.putInt(entry.uid()).putInt(entry.hasDetails() ? FLAG_DETAILS : 0);
+            putString(index, pool, entry.name() == null ? "" : entry.name());
+            putString(index, pool, PeopleSearchIndex.normalize(entry.name()));
+            putString(index, pool, entry.gender());
+            putString(index, pool, entry.height());
+            putString(index, pool, entry.url());
+        }
+        index.flip();
+        ByteBuffer strings = ByteBuffer.wrap(pool.toByteArray());
+
+        CRC32C crc = new CRC32C();
+        crc.update(index.duplicate());
+        crc.update(strings.duplicate());
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                .putInt(MAGIC)
+                .putInt(FORMAT_VERSION)
+                .putInt(byUid.size())
+                .putInt(strings.remaining())
+                .putLong(System.currentTimeMillis())
+                .putLong(crc.getValue())
+                .flip();
+
+        Path directory = target.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                for (ByteBuffer part : new ByteBuffer[]{header, index, strings}) {
+                    while (part.hasRemaining()) {
+                        channel.write(part);
+                    }
+                }
+                channel.force(true);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public boolean hasDetails(String id) {
+        int record = indexOf(id);
+        return record >= 0 && (buffer.getInt(recordOffset(record) + 4) & FLAG_DETAILS) != 0;
+    }
+
+    public Optional<PeopleDetailResponse> findPerson(String id) {
+        int record = indexOf(id);
+        if (record < 0 || (buffer.getInt(recordOffset(record) + 4) & FLAG_DETAILS) == 0) {
+            return Optional.empty();
+        }
+        return Optional.of(PeopleDetailResponse.builder()
+                .name(string(record, NAME))
+                .gender(string(record, GENDER))
+                .height(string(record, HEIGHT))
+                .url(string(record, URL))
+                .build());
+    }
+
+    public PeoplePageResponse getPage(int page, int limit) {
+        if (page < 1 || limit < 1) {
+            throw new IllegalArgumentException("Los parámetros page y limit deben ser mayores que cero");
+        }
+        long from = (long) (page - 1) * limit;
+        int to = (int) Math.min(from + limit, count);
+        List<PeopleSummaryResponse> results = new ArrayList<>();
+        for (int record = (int) Math.min(from, count); record < to; record++) {
+            results.add(summary(record));
+        }
+        return PeoplePageResponse.builder()
+                .totalRecords(count)
+                .totalPages((count + limit - 1) / limit)
+                .results(results)
+                .build();
+    }
+
+    /**
+     * Búsqueda por subcadena del nombre normalizado, recorriendo el índice en orden de uid.
+     */
+    public List<PeopleSummaryResponse> search(String name) {
+        String query = PeopleSearchIndex.normalize(name);
+        if (query.isEmpty()) {
+            return List.of();
+        }
+        List<PeopleSummaryResponse> results = new ArrayList<>();
+        for (int record = 0; record < count; record++) {
+            if (string(record, NORMALIZED_NAME).contains(query)) {
+                results.add(summary(record));
+            }
+        }
+        return results;
+    }
+
+    private PeopleSummaryResponse summary(int record) {
+        return PeopleSummaryResponse.builder()
+                .uid(String.valueOf(buffer.getInt(recordOffset(record))))
+                .name(string(record, NAME))
+                .build();
+    }
+
+    private int indexOf(String id) {
+        int uid;
+        try {
+            uid = Integer.parseInt(id);
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int value = buffer.getInt(recordOffset(mid));
+            if (value < uid) {
+                low = mid + 1;
+            } else if (value > uid) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private String string(int record, int field) {
+        int position = recordOffset(record) + 8 + field * 8;
+        int length = buffer.getInt(position + 4);
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(poolStart + buffer.getInt(position), bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int recordOffset(int record) {
+        return HEADER_SIZE + record * RECORD_SIZE;
+    }
+
+    private static void putString(ByteBuffer index, ByteArrayOutputStream pool, String value) {
+        if (value == null) {
+            index.putInt(0).putInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        index.putInt(pool.size()).putInt(bytes.length);
+        pool.writeBytes(bytes);
+    }
+}
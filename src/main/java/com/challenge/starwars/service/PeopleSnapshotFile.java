@@ -0,0 +1,105 @@
+package com.challenge.starwars.service;
+
+import com.challenge.starwars.entity.Person;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Mantiene la {@link PeopleSnapshot} en disco ({@code swapi.snapshot.path}). Al arrancar
+ * la mapea en memoria, de modo que el servicio responde desde la primera petición sin
+ * esperar a SWAPI; si falta o está dañada se ignora y se sigue con las demás fuentes.
+ * Se regenera tras cada sincronización a partir de la tabla {@code people} o, sin ella,
+ * del catálogo en memoria (sólo resúmenes).
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "swapi.snapshot.enabled", havingValue = "true", matchIfMissing = true)
+public class PeopleSnapshotFile {
+
+    private final Path path;
+    private final PeopleCatalog peopleCatalog;
+    private final PeopleStore peopleStore;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile PeopleSnapshot snapshot;
+
+    public PeopleSnapshotFile(@Value("${swapi.snapshot.path:./data/people.snapshot}") Path path,
+                              PeopleCatalog peopleCatalog,
+                              ObjectProvider<PeopleStore> peopleStore) {
+        this.path = path;
+        this.peopleCatalog = peopleCatalog;
+        this.peopleStore = peopleStore.getIfAvailable();
+    }
+
+    @PostConstruct
+    public void load() {
+        if (!Files.exists(path)) {
+            log.info("No hay instantánea de personajes en {}", path);
+            return;
+        }
+        try {
+            snapshot = PeopleSnapshot.open(path);
+            log.info("Instantánea de personajes cargada: {} registros del {}", snapshot.size(), snapshot.getCreatedAt());
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Se descarta la instantánea de personajes {}: {}", path, ex.getMessage());
+        }
+    }
+
+    public Optional<PeopleSnapshot> get() {
+        return Optional.ofNullable(snapshot);
+    }
+
+    public void rebuild() {
+        writeLock.lock();
+        try {
+            List<PeopleSnapshot.Entry> entries = collectEntries();
+            if (entries.isEmpty()) {
+                return;
+            }
+            PeopleSnapshot.write(path, entries);
+            snapshot = PeopleSnapshot.open(path);
+            log.debug("Instantánea de personajes regenerada: {} registros", snapshot.size());
+        } catch (IOException | RuntimeException ex) {
+            log.warn("No se pudo regenerar la instantánea de personajes: {}", ex.getMessage());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private List<PeopleSnapshot.Entry> collectEntries() {
+        if (peopleStore != null) {
+            return peopleStore.findAll().stream()
+                    .filter(person -> isNumeric(person.getUid()))
+                    .map(PeopleSnapshotFile::toEntry)
+                    .toList();
+        }
+        return peopleCatalog.getPeople().stream()
+                .filter(person -> isNumeric(person.getUid()))
+                .map(person -> new PeopleSnapshot.Entry(Integer.parseInt(person.getUid()), person.getName(),
+                        null, null, null, false))
+                .toList();
+    }
+
+    private static PeopleSnapshot.Entry toEntry(Person person) {
+        return new PeopleSnapshot.Entry(Integer.parseInt(person.getUid()), person.getName(), person.getGender(),
+                person.getHeight(), person.getUrl(), person.getDetailsSyncedAt() != null);
+    }
+
+    private static boolean isNumeric(String uid) {
+        if (uid == null || uid.isEmpty() || uid.length() > 9) {
+            return false;
+        }
+        return uid.chars().allMatch(Character::isDigit);
+    }
+}
@@ -0,0 +1,224 @@
+package com.challenge.starwars.service;
+
+import com.challenge.starwars.dto.response.PeopleDetailResponse;
+import com.challenge.starwars.dto.response.PeoplePageResponse;
+import com.challenge.starwars.dto.response.PeopleSummaryResponse;
+import com.challenge.starwars.entity.Person;
+import com.challenge.starwars.repository.PersonRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Réplica persistente de los personajes de SWAPI en la tabla {@code people}. Las lecturas
+ * son consultas indexadas (por {@code uid}, clave primaria, o por nombre normalizado) y
+ * las escrituras de la sincronización se envían en lotes JDBC con {@code MERGE} de H2,
+ * tocando sólo las filas nuevas, modificadas o eliminadas. Como las actualizaciones
+ * {@code @Modifying} de los repositorios, cada escritura vacía y limpia el contexto de
+ * persistencia para que no queden entidades desactualizadas.
+ */
+@Component
+@ConditionalOnProperty(name = "swapi.people-store.enabled", havingValue = "true", matchIfMissing = true)
+public class PeopleStore {
+
+    private static final String UPSERT_SUMMARY =
+            "MERGE INTO people (uid, name, normalized_name, details_synced_at, updated_at) KEY (uid) VALUES (?, ?, ?, NULL, ?)";
+
+    private static final String UPSERT_DETAILS =
+            "MERGE INTO people (uid, name, normalized_name, gender, height, url, details_synced_at, updated_at) " +
+                    "KEY (uid) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String DELETE = "DELETE FROM people WHERE uid = ?";
+
+    private final PersonRepository personRepository;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final EntityManager entityManager;
+
+    private final int batchSize;
+
+    public PeopleStore(PersonRepository personRepository,
+                       JdbcTemplate jdbcTemplate,
+                       EntityManager entityManager,
+                       @Value("${swapi.people-store.batch-size:100}") int batchSize) {
+        this.personRepository = personRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Detalle del personaje, sólo si ya se sincronizó.
+     */
+    @Transactional(readOnly = true)
+    public Optional<PeopleDetailResponse> findDetails(String uid) {
+        return personRepository.findById(uid)
+                .filter(person -> person.getDetailsSyncedAt() != null)
+                .map(person -> PeopleDetailResponse.builder()
+                        .name(person.getName())
+                        .gender(person.getGender())
+                        .height(person.getHeight())
+                        .url(person.getUrl())
+                        .build());
+    }
+
+    @Transactional(readOnly = true)
+    public List<PeopleSummaryResponse> findAllSummaries() {
+        return jdbcTemplate.query("SELECT uid, name FROM people", (rs, row) -> PeopleSummaryResponse.builder()
+                .uid(rs.getString("uid"))
+                .name(rs.getString("name"))
+                .build());
+    }
+
+    /**
+     * Página ordenada por {@code uid}, o vacío si la tabla todavía no tiene datos.
+     */
+    @Transactional(readOnly = true)
+    public Optional<PeoplePageResponse> getPage(int page, int limit) {
+        if (page < 1 || limit < 1) {
+            throw new IllegalArgumentException("Los parámetros page y limit deben ser mayores que cero");
+        }
+        Page<Person> result = personRepository.findPage(PageRequest.of(page - 1, limit));
+        if (result.getTotalElements() == 0) {
+            return Optional.empty();
+        }
+        return Optional.of(PeoplePageResponse.builder()
+                .totalRecords((int) result.getTotalElements())
+                .totalPages(result.getTotalPages())
+                .results(result.getContent().stream().map(PeopleStore::toSummary).toList())
+                .build());
+    }
+
+    /**
+     * Busca por subcadena del nombre normalizado, o devuelve vacío si la tabla todavía no
+     * tiene datos.
+     */
+    @Transactional(readOnly = true)
+    public Optional<List<PeopleSummaryResponse>> search(String name) {
+        if (personRepository.count() == 0) {
+            return Optional.empty();
+        }
+        String pattern = PeopleSearchIndex.normalize(name)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return Optional.of(personRepository.searchByNormalizedName(pattern).stream()
+                .map(PeopleStore::toSummary)
+                .toList());
+    }
+
+    @Transactional(readOnly = true)
+    public List<Person> findAll() {
+        List<Person> people = new ArrayList<>();
+        personRepository.findAll().forEach(people::add);
+        return people;
+    }
+
+    @Transactional(readOnly = true)
+    public List<String> findUidsNeedingDetails(Instant staleBefore, int limit) {
+        return personRepository.findUidsNeedingDetails(staleBefore, PageRequest.of(0, limit));
+    }
+
+    /**
+     * Ajusta la tabla al listado completo de SWAPI: inserta los personajes nuevos, actualiza
+     * los renombrados (marcando su detalle como pendiente) y elimina los que ya no figuran.
+     * Un listado vacío no borra nada.
+     */
+    @Transactional
+    public SyncResult syncSummaries(List<PeopleSummaryResponse> people) {
+        entityManager.flush();
+        Map<String, String> stored = new HashMap<>();
+        jdbcTemplate.query("SELECT uid, name FROM people", rs -> {
+            stored.put(rs.getString("uid"), rs.getString("name"));
+        });
+
+        List<PeopleSummaryResponse> changed = new ArrayList<>();
+        Set<String> listed = new HashSet<>();
+        for (PeopleSummaryResponse person : people) {
+            if (person.getUid() == null || person.getName() == null || !listed.add(person.getUid())) {
+                continue;
+            }
+            if (!Objects.equals(stored.get(person.getUid()), person.getName())) {
+                changed.add(person);
+            }
+        }
+
+        List<String> removed = listed.isEmpty() ? List.of() : stored.keySet().stream()
+                .filter(uid -> !listed.contains(uid))
+                .toList();
+
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbcTemplate.batchUpdate(UPSERT_SUMMARY, changed, batchSize, (ps, person) -> {
+            ps.setString(1, person.getUid());
+            ps.setString(2, person.getName());
+            ps.setString(3, PeopleSearchIndex.normalize(person.getName()));
+            ps.setTimestamp(4, now);
+        });
+        jdbcTemplate.batchUpdate(DELETE, removed, batchSize, (ps, uid) -> ps.setString(1, uid));
+        entityManager.clear();
+
+        return new SyncResult(changed.size(), removed.size());
+    }
+
+    @Transactional
+    public void saveDetails(Map<String, PeopleDetailResponse> details) {
+        entityManager.flush();
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbcTemplate.batchUpdate(UPSERT_DETAILS, List.copyOf(details.entrySet()), batchSize, (ps, entry) -> {
+            PeopleDetailResponse person = entry.getValue();
+            ps.setString(1, entry.getKey());
+            ps.setString(2, person.getName());
+            ps.setString(3, PeopleSearchIndex.normalize(person.getName()));
+            ps.setString(4, person.getGender());
+            ps.setString(5, person.getHeight());
+            ps.setString(6, person.getUrl());
+            ps.setTimestamp(7, now);
+            ps.setTimestamp(8, now);
+        });
+        entityManager.clear();
+    }
+
+    /**
+     * Elimina los personajes cuyo detalle SWAPI ya no encuentra, para que no encabecen
+     * cada pasada de {@link PeopleStoreSync}. Si SWAPI los sigue listando, el siguiente
+     * refresco del catálogo los vuelve a insertar.
+     */
+    @Transactional
+    public void delete(Collection<String> uids) {
+        entityManager.flush();
+        jdbcTemplate.batchUpdate(DELETE, List.copyOf(uids), batchSize, (ps, uid) -> ps.setString(1, uid));
+        entityManager.clear();
+    }
+
+    private static PeopleSummaryResponse toSummary(Person person) {
+        return PeopleSummaryResponse.builder()
+                .uid(person.getUid())
+                .name(person.getName())
+                .build();
+    }
+
+    /**
+     * @param upserted filas insertadas o actualizadas
+     * @param deleted filas eliminadas por no figurar ya en SWAPI
+     */
+    public record SyncResult(int upserted, int deleted) {
+    }
+}
@@ -0,0 +1,112 @@
+package com.challenge.starwars.service;
+
+import com.challenge.starwars.cache.SharedCache;
+import com.challenge.starwars.client.SwapiClient;
+import com.challenge.starwars.dto.response.PeopleDetailResponse;
+import com.challenge.starwars.exception.ResourceNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Completa en segundo plano el detalle de los personajes de {@link PeopleStore}: en cada
+ * pasada pide a SWAPI sólo los que no lo tienen o lo tienen con más de
+ * {@code swapi.people-store.detail-max-age}, como mucho {@code details-per-sync}, y los
+ * guarda en un único lote, regenerando después la {@link PeopleSnapshot}. Los que SWAPI
+ * responde con 404 se eliminan de la tabla en lugar de quedar pendientes para siempre. Con
+ * la caché compartida activa, el detalle se toma de ella si otra réplica ya lo pidió, y lo
+ * que se pide a SWAPI se publica en ella.
+ * Los resúmenes los sincroniza {@link PeopleCatalogRefresher}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "swapi.people-store.enabled", havingValue = "true", matchIfMissing = true)
+public class PeopleStoreSync {
+
+    private final SwapiClient swapiClient;
+    private final PeopleStore peopleStore;
+    private final Duration detailMaxAge;
+    private final int detailsPerSync;
+    private final PeopleSnapshotFile peopleSnapshot;
+    private final SharedCache<PeopleDetailResponse> peopleDetailSharedCache;
+
+    public PeopleStoreSync(SwapiClient swapiClient,
+                           PeopleStore peopleStore,
+                           @Value("${swapi.people-store.detail-max-age:P7D}") Duration detailMaxAge,
+                           @Value("${swapi.people-store.details-per-sync:50}") int detailsPerSync,
+                           ObjectProvider<PeopleSnapshotFile> peopleSnapshot,
+                           ObjectProvider<SharedCache<PeopleDetailResponse>> peopleDetailSharedCache) {
+        this.swapiClient = swapiClient;
+        this.peopleStore = peopleStore;
+        this.detailMaxAge = detailMaxAge;
+        this.detailsPerSync = detailsPerSync;
+        this.peopleSnapshot = peopleSnapshot.getIfAvailable();
+        this.peopleDetailSharedCache = peopleDetailSharedCache.getIfAvailable();
+    }
+
+    @Scheduled(initialDelayString = "${swapi.people-store.initial-delay:PT30S}",
+            fixedDelayString = "${swapi.people-store.detail-sync-interval:PT5M}")
+    public void syncDetails() {
+        try {
+            List<String> pending = peopleStore.findUidsNeedingDetails(Instant.now().minus(detailMaxAge), detailsPerSync);
+            if (pending.isEmpty()) {
+                return;
+            }
+
+            List<String> missing = new ArrayList<>();
+            Map<String, PeopleDetailResponse> fetched = fetchDetails(pending, missing);
+            peopleStore.saveDetails(fetched);
+            if (!missing.isEmpty()) {
+                peopleStore.delete(missing);
+            }
+            if (peopleSnapshot != null && (!fetched.isEmpty() || !missing.isEmpty())) {
+                peopleSnapshot.rebuild();
+            }
+            log.info("Detalle de personajes sincronizado: {} de {} pendientes, {} ya no existen en SWAPI",
+                    fetched.size(), pending.size(), missing.size());
+        } catch (RuntimeException ex) {
+            log.warn("No se pudo sincronizar el detalle de los personajes: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Se detiene en el primer fallo de SWAPI y conserva lo obtenido hasta entonces. Los
+     * personajes que SWAPI ya no encuentra se añaden a {@code missing}.
+     */
+    Map<String, PeopleDetailResponse> fetchDetails(List<String> uids, List<String> missing) {
+        Map<String, PeopleDetailResponse> fetched = new LinkedHashMap<>();
+        for (String uid : uids) {
+            try {
+                fetched.put(uid, fetchDetail(uid));
+            } catch (ResourceNotFoundException ex) {
+                log.debug("El personaje {} ya no existe en SWAPI", uid);
+                missing.add(uid);
+            } catch (RuntimeException ex) {
+                log.warn("Sincronización de detalle interrumpida en el personaje {}: {}", uid, ex.getMessage());
+                break;
+            }
+        }
+        return fetched;
+    }
+
+    private PeopleDetailResponse fetchDetail(String uid) {
+        if (peopleDetailSharedCache == null) {
+            return PeopleServiceImpl.toPersonDetail(uid, swapiClient.getPerson(uid));
+        }
+        return peopleDetailSharedCache.get(uid).orElseGet(() -> {
+            PeopleDetailResponse person = PeopleServiceImpl.toPersonDetail(uid, swapiClient.getPerson(uid));
+            peopleDetailSharedCache.put(uid, person);
+            return person;
+        });
+    }
+}
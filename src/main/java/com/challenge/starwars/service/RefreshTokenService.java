@@ -0,0 +1,15 @@
+package com.challenge.starwars.service;
+
+import com.challenge.starwars.entity.User;
+
+public interface RefreshTokenService {
+
+    String issue(User user);
+
+    Rotation rotate(String refreshToken);
+
+    void revoke(String refreshToken);
+
+    record Rotation(String username, String refreshToken) {
+    }
+}
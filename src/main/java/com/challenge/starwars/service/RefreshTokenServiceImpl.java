@@ -0,0 +1,99 @@
+package com.challenge.starwars.service;
+
+import com.challenge.starwars.entity.RefreshToken;
+import com.challenge.starwars.entity.User;
+import com.challenge.starwars.exception.InvalidRefreshTokenException;
+import com.challenge.starwars.repository.RefreshTokenRepository;
+import com.challenge.starwars.security.TokenDigest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Refresh tokens opacos (256 bits aleatorios) persistidos por su SHA-256. Cada uso los
+ * rota: el token presentado queda revocado y se emite otro de la misma familia. Presentar
+ * un token ya rotado se trata como una filtración y revoca la familia completa.
+ */
+@Slf4j
+@Service
+public class RefreshTokenServiceImpl implements RefreshTokenService {
+
+    private static final String INVALID_TOKEN = "Refresh token inválido o expirado";
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    private final Duration refreshExpiration;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    public RefreshTokenServiceImpl(RefreshTokenRepository refreshTokenRepository,
+                                   @Value("${spring.jwt.refresh-expiration}") long refreshExpiration) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.refreshExpiration = Duration.ofMillis(refreshExpiration);
+    }
+
+    @Transactional
+    @Override
+    public String issue(User user) {
+        return issue(user.getUsername(), UUID.randomUUID().toString());
+    }
+
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    @Override
+    public Rotation rotate(String refreshToken) {
+        RefreshToken current = refreshTokenRepository.findByTokenHash(TokenDigest.sha256(refreshToken))
+                .orElseThrow(() -> new InvalidRefreshTokenException(INVALID_TOKEN));
+
+        if (current.getExpiresAt().isBefore(Instant.now())) {
+            throw new InvalidRefreshTokenException(INVALID_TOKEN);
+        }
+
+        if (current.isRevoked() || refreshTokenRepository.revokeIfActive(current.getId()) == 0) {
+            refreshTokenRepository.revokeFamily(current.getFamily());
+            log.warn("Reutilización de un refresh token ya rotado del usuario {}; se revoca su familia", current.getUsername());
+            throw new InvalidRefreshTokenException(INVALID_TOKEN);
+        }
+
+        return new Rotation(current.getUsername(), issue(current.getUsername(), current.getFamily()));
+    }
+
+    @Transactional
+    @Override
+    public void revoke(String refreshToken) {
+        refreshTokenRepository.findByTokenHash(TokenDigest.sha256(refreshToken))
+                .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamily()));
+    }
+
+    @Transactional
+    @Scheduled(initialDelayString = "${spring.jwt.refresh-cleanup-interval:PT1H}",
+            fixedDelayString = "${spring.jwt.refresh-cleanup-interval:PT1H}")
+    public void pruneExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(Instant.now());
+        if (deleted > 0) {
+            log.info("Eliminados {} refresh tokens expirados", deleted);
+        }
+    }
+
+    private String issue(String username, String family) {
+        byte[] bytes = new byte[32];
+        secureRandom.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash(TokenDigest.sha256(token))
+                .username(username)
+                .family(family)
+                .expiresAt(Instant.now().plus(refreshExpiration))
+                .build());
+
+        return token;
+    }
+}
@@ -0,0 +1,10 @@
+package com.challenge.starwars.service;
+
+import io.jsonwebtoken.Claims;
+
+public interface TokenRevocationService {
+
+    void revoke(Claims claims);
+
+    boolean isRevoked(Claims claims);
+}
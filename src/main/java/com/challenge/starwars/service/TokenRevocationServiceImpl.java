@@ -0,0 +1,201 @@
+package com.challenge.starwars.service;
+
+import com.challenge.starwars.cache.BloomFilter;
+import com.challenge.starwars.cache.SharedCacheBackend;
+import com.challenge.starwars.entity.RevokedToken;
+import com.challenge.starwars.repository.RevokedTokenRepository;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Revocación de access tokens por {@code jti}. La tabla {@code revoked_tokens} es la fuente
+ * de verdad, pero cada petición consulta primero un filtro de Bloom en memoria y sólo va a
+ * la base de datos cuando el filtro da positivo. El filtro se reconstruye periódicamente
+ * desde la tabla, lo que también descarta los tokens ya expirados y recoge las
+ * revocaciones hechas en otras instancias.
+ * <p>
+ * Una revocación se añade al filtro sólo cuando su transacción confirma: así una
+ * reconstrucción concurrente, que no ve la fila aún sin confirmar, no puede descartarla.
+ * Con la caché compartida activa ({@code swapi.cache.shared.enabled}) el {@code jti} se
+ * publica además en el canal {@code keyPrefix + "revocations"} para que las demás
+ * instancias lo añadan a su filtro al momento; sin ella, o si el mensaje se pierde, lo
+ * recogen en su siguiente reconstrucción ({@code security.revocation.refresh-interval}).
+ */
+@Slf4j
+@Service
+public class TokenRevocationServiceImpl implements TokenRevocationService, MeterBinder {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    private final long expectedRevocations;
+
+    private final double falsePositiveProbability;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final SharedCacheBackend sharedCacheBackend;
+
+    private final String revocationChannel;
+
+    private volatile BloomFilter filter;
+
+    private final LongAdder filterNegatives = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private final LongAdder revokedHits = new LongAdder();
+
+    public TokenRevocationServiceImpl(RevokedTokenRepository revokedTokenRepository,
+                                      @Value("${security.revocation.expected-revocations:100000}") long expectedRevocations,
+                                      @Value("${security.revocation.false-positive-probability:0.001}") double falsePositiveProbability,
+                                      @Value("${swapi.cache.shared.key-prefix:starwars:}") String keyPrefix,
+                                      ObjectProvider<SharedCacheBackend> sharedCacheBackend) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.sharedCacheBackend = sharedCacheBackend.getIfAvailable();
+        this.revocationChannel = keyPrefix + "revocations";
+        this.filter = new BloomFilter(expectedRevocations, falsePositiveProbability);
+    }
+
+    @PostConstruct
+    void loadFilter() {
+        rebuildFilter();
+    }
+
+    /**
+     * Añade al filtro las revocaciones que publican las demás instancias. La fila ya está
+     * confirmada cuando llega el mensaje, así que una reconstrucción posterior la incluye.
+     */
+    @PostConstruct
+    void subscribeToRevocations() {
+        if (sharedCacheBackend != null) {
+            sharedCacheBackend.subscribe(revocationChannel, this::addToFilter);
+        }
+    }
+
+    @Transactional
+    @Override
+    public void revoke(Claims claims) {
+        if (claims.getId() == null || claims.getExpiration() == null) {
+            log.warn("Token sin jti o sin expiración del usuario {}: no se puede revocar", claims.getSubject());
+            return;
+        }
+        Instant expiresAt = claims.getExpiration().toInstant();
+        if (expiresAt.isBefore(Instant.now())) {
+            return;
+        }
+
+        revokedTokenRepository.save(RevokedToken.builder()
+                .jti(claims.getId())
+                .expiresAt(expiresAt)
+                .build());
+
+        String jti = claims.getId();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            revoked(jti);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                revoked(jti);
+            }
+        });
+    }
+
+    @Override
+    public boolean isRevoked(Claims claims) {
+        String jti = claims.getId();
+        if (jti == null || !filter.mightContain(jti)) {
+            filterNegatives.increment();
+            return false;
+        }
+
+        if (revokedTokenRepository.existsById(jti)) {
+            revokedHits.increment();
+            return true;
+        }
+        falsePositives.increment();
+        return false;
+    }
+
+    @Transactional
+    @Scheduled(initialDelayString = "${security.revocation.refresh-interval:PT1M}",
+            fixedDelayString = "${security.revocation.refresh-interval:PT1M}")
+    public void pruneAndRebuild() {
+        int deleted = revokedTokenRepository.deleteExpired(Instant.now());
+        if (deleted > 0) {
+            log.debug("Eliminadas {} revocaciones de tokens ya expirados", deleted);
+        }
+        rebuildFilter();
+    }
+
+    private void revoked(String jti) {
+        addToFilter(jti);
+        if (sharedCacheBackend == null) {
+            return;
+        }
+        try {
+            sharedCacheBackend.publish(revocationChannel, jti);
+        } catch (RuntimeException ex) {
+            log.warn("No se pudo avisar a las demás instancias de la revocación {}: {}", jti, ex.getMessage());
+        }
+    }
+
+    /**
+     * Se hace bajo el mismo cerrojo que la reconstrucción: o el filtro reconstruido ya lee
+     * la fila confirmada, o el {@code jti} se añade al filtro que la reconstrucción dejó.
+     */
+    private void addToFilter(String jti) {
+        lock.lock();
+        try {
+            filter.put(jti);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void rebuildFilter() {
+        lock.lock();
+        try {
+            List<String> active = revokedTokenRepository.findActiveJtis(Instant.now());
+            BloomFilter rebuilt = new BloomFilter(Math.max(expectedRevocations, 2L * active.size()), falsePositiveProbability);
+            active.forEach(rebuilt::put);
+            this.filter = rebuilt;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        FunctionCounter.builder("token.revocation.checks", filterNegatives, LongAdder::sum)
+                .tag("result", "filter_negative")
+                .description("Comprobaciones de revocación resueltas sólo con el filtro en memoria")
+                .register(registry);
+
+        FunctionCounter.builder("token.revocation.checks", falsePositives, LongAdder::sum)
+                .tag("result", "false_positive")
+                .register(registry);
+
+        FunctionCounter.builder("token.revocation.checks", revokedHits, LongAdder::sum)
+                .tag("result", "revoked")
+                .register(registry);
+    }
+}
@@ -0,0 +1,33 @@
+package com.challenge.starwars.service;
+
+import com.challenge.starwars.cache.ExpiringCache;
+import com.challenge.starwars.entity.User;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Invalida el usuario cacheado por el {@code UserDetailsService} una vez confirmada la
+ * transacción, para que una lectura concurrente no vuelva a cachear la versión anterior.
+ * Toda escritura sobre {@code UserRepository} debe pasar por aquí.
+ */
+@Component
+@AllArgsConstructor
+public class UserCacheEvictor {
+
+    private final ExpiringCache<String, User> userDetailsCache;
+
+    public void evictAfterCommit(String username) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            userDetailsCache.invalidate(username);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                userDetailsCache.invalidate(username);
+            }
+        });
+    }
+}
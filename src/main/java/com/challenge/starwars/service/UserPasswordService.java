@@ -0,0 +1,40 @@
+package com.challenge.starwars.service;
+
+import com.challenge.starwars.entity.User;
+import com.challenge.starwars.repository.UserRepository;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Spring Security lo invoca tras un login correcto cuando el hash guardado usa un coste
+ * de BCrypt distinto del actual, mayor o menor, con la contraseña ya re-hasheada (ver
+ * {@code CalibratedBCryptPasswordEncoder}).
+ */
+@Slf4j
+@Service
+@AllArgsConstructor
+public class UserPasswordService implements UserDetailsPasswordService {
+
+    private final UserRepository userRepository;
+
+    private final UserCacheEvictor userCacheEvictor;
+
+    @Transactional
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        User stored = userRepository.findByUsername(user.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado"));
+
+        stored.setPassword(newPassword);
+        userRepository.save(stored);
+        userCacheEvictor.evictAfterCommit(stored.getUsername());
+
+        log.debug("Hash de contraseña actualizado al coste vigente para el usuario {}", stored.getUsername());
+        return stored;
+    }
+}
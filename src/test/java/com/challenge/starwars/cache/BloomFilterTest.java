@@ -0,0 +1,38 @@
+package com.challenge.starwars.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    @Test
+    @DisplayName("No debe dar falsos negativos")
+    void shouldNeverReturnFalseNegatives() {
+
+        BloomFilter filter = new BloomFilter(1_000, 0.01);
+        var keys = IntStream.range(0, 1_000).mapToObj(i -> UUID.randomUUID().toString()).toList();
+
+        keys.forEach(filter::put);
+
+        assertThat(keys).allMatch(filter::mightContain);
+    }
+
+    @Test
+    @DisplayName("Debe mantener los falsos positivos cerca de la probabilidad configurada")
+    void shouldKeepFalsePositiveRateNearTarget() {
+
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.put("revocado-" + i));
+
+        long falsePositives = IntStream.range(0, 100_000)
+                .filter(i -> filter.mightContain("vigente-" + i))
+                .count();
+
+        assertThat(falsePositives).isLessThan(2_000);
+    }
+}
@@ -0,0 +1,43 @@
+package com.challenge.starwars.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CountMinSketchTest {
+
+    @Test
+    @DisplayName("Debe estimar la frecuencia sin subestimarla")
+    void shouldEstimateFrequency() {
+
+        CountMinSketch sketch = new CountMinSketch(100);
+
+        for (int i = 0; i < 50; i++) {
+            sketch.increment("hot");
+        }
+        for (int id = 0; id < 100; id++) {
+            sketch.increment(String.valueOf(id));
+        }
+
+        assertThat(sketch.estimate("hot")).isBetween(50, 55);
+        assertThat(sketch.estimate("42")).isBetween(1, 5);
+        assertThat(sketch.estimate("never")).isLessThan(5);
+    }
+
+    @Test
+    @DisplayName("Debe reducir las frecuencias a la mitad al completar la muestra")
+    void shouldAgeCounters() {
+
+        CountMinSketch sketch = new CountMinSketch(16);
+
+        for (int i = 0; i < 100; i++) {
+            sketch.increment("hot");
+        }
+        for (int i = 0; i < sketch.getSampleSize() - 100; i++) {
+            sketch.increment("other-" + (i % 8));
+        }
+
+        assertThat(sketch.estimate("hot")).isBetween(50, 60);
+    }
+}
@@ -0,0 +1,119 @@
+package com.challenge.starwars.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DiskCacheTest {
+
+    @TempDir
+    private Path directory;
+
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+
+    private DiskCache<String> open(int maximumEntries) {
+        return DiskCache.<String>builder("test.l2")
+                .path(directory.resolve("test.cache"))
+                .maximumEntries(maximumEntries)
+                .slotSize(64)
+                .ttl(Duration.ofMinutes(10))
+                .codec(value -> value.getBytes(StandardCharsets.UTF_8), bytes -> new String(bytes, StandardCharsets.UTF_8))
+                .currentTimeMillis(clock::get)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Debe conservar las entradas vigentes tras reabrir el fichero")
+    void shouldSurviveReopen() throws IOException {
+
+        try (DiskCache<String> cache = open(4)) {
+            cache.put("1", "Luke Skywalker");
+            cache.put("2", "C-3PO");
+            cache.invalidate("2");
+        }
+
+        try (DiskCache<String> reopened = open(4)) {
+            assertThat(reopened.size()).isEqualTo(1);
+            assertThat(reopened.get("1")).contains("Luke Skywalker");
+            assertThat(reopened.get("2")).isEmpty();
+            assertThat(reopened.stats().hits()).isEqualTo(1);
+            assertThat(reopened.stats().misses()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    @DisplayName("Debe descartar las entradas vencidas, también al reabrir")
+    void shouldExpireEntries() throws IOException {
+
+        try (DiskCache<String> cache = open(4)) {
+            cache.put("1", "Luke Skywalker");
+            clock.addAndGet(Duration.ofMinutes(5).toMillis());
+            cache.put("2", "C-3PO");
+            clock.addAndGet(Duration.ofMinutes(6).toMillis());
+
+            assertThat(cache.contains("1")).isFalse();
+            assertThat(cache.get("1")).isEmpty();
+            assertThat(cache.stats().expirations()).isEqualTo(1);
+        }
+
+        clock.addAndGet(Duration.ofMinutes(5).toMillis());
+        try (DiskCache<String> reopened = open(4)) {
+            assertThat(reopened.size()).isZero();
+        }
+    }
+
+    @Test
+    @DisplayName("Debe desalojar la entrada menos usada recientemente y rechazar valores que no caben")
+    void shouldEvictLeastRecentlyUsed() throws IOException {
+
+        try (DiskCache<String> cache = open(2)) {
+            cache.put("1", "Luke Skywalker");
+            cache.put("2", "C-3PO");
+            cache.get("1");
+            cache.put("3", "R2-D2");
+            cache.put("4", "x".repeat(64));
+
+            assertThat(cache.contains("1")).isTrue();
+            assertThat(cache.contains("2")).isFalse();
+            assertThat(cache.contains("3")).isTrue();
+            assertThat(cache.contains("4")).isFalse();
+            assertThat(cache.stats().evictions()).isEqualTo(1);
+            assertThat(cache.stats().rejected()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    @DisplayName("Debe ignorar una ranura dañada y empezar de cero si cambia la configuración")
+    void shouldDiscardCorruptedSlotsAndIncompatibleFiles() throws IOException {
+
+        try (DiskCache<String> cache = open(4)) {
+            cache.put("1", "Luke Skywalker");
+            cache.put("2", "C-3PO");
+        }
+
+        int lastByteOfFirstValue = DiskCache.HEADER_SIZE + DiskCache.SLOT_HEADER_SIZE + 1 + "Luke Skywalker".length() - 1;
+        try (FileChannel channel = FileChannel.open(directory.resolve("test.cache"), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{'X'}), lastByteOfFirstValue);
+        }
+
+        try (DiskCache<String> reopened = open(4)) {
+            assertThat(reopened.get("1")).isEmpty();
+            assertThat(reopened.get("2")).contains("C-3PO");
+        }
+
+        try (DiskCache<String> resized = open(8)) {
+            assertThat(resized.size()).isZero();
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.challenge.starwars.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Servidor en proceso que implementa el subconjunto del protocolo de Redis que usa
+ * {@link RedisCacheBackend} (PING, AUTH, GET, SET con PX y GET, DEL, PUBLISH y SUBSCRIBE),
+ * para probar la caché compartida sin servicios externos. Las claves marcadas con
+ * {@link #respondMalformed(String)} responden al GET con una línea RESP inválida. El cierre de un socket con un
+ * hilo bloqueado en él se difiere hasta que el hilo despierta, así que tras {@link #close()}
+ * las conexiones y órdenes que aún lleguen se descartan sin respuesta.
+ */
+class EmbeddedRedisServer implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final Map<String, Value> data = new ConcurrentHashMap<>();
+    private final Map<String, Set<Client>> subscribers = new ConcurrentHashMap<>();
+    private final List<Socket> sockets = new CopyOnWriteArrayList<>();
+    private final Set<String> malformed = ConcurrentHashMap.newKeySet();
+    private volatile boolean closed;
+
+    EmbeddedRedisServer() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread.ofVirtual().start(this::accept);
+    }
+
+    int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    boolean containsKey(String key) {
+        Value value = data.get(key);
+        return value != null && !value.isExpired();
+    }
+
+    void respondMalformed(String key) {
+        malformed.add(key);
+    }
+
+    long openConnections() {
+        return sockets.stream().filter(socket -> !socket.isClosed()).count();
+    }
+
+    int subscriberCount(String channel) {
+        return subscribers.getOrDefault(channel, Set.of()).size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        serverSocket.close();
+        for (Socket socket : sockets) {
+            socket.close();
+        }
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                sockets.add(socket);
+                if (closed) {
+                    socket.close();
+                    return;
+                }
+                Thread.ofVirtual().start(() -> serve(socket));
+            } catch (IOException ex) {
+                return;
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        Client client = null;
+        try (socket) {
+            client = new Client(socket);
+            List<byte[]> command;
+            while ((command = client.readCommand()) != null && !closed) {
+                execute(client, command);
+            }
+        } catch (IOException ex) {
+            // Conexión cerrada por el cliente o por close().
+        } finally {
+            if (client != null) {
+                Client closed = client;
+                subscribers.values().forEach(clients -> clients.remove(closed));
+            }
+        }
+    }
+
+    private void execute(Client client, List<byte[]> command) throws IOException {
+        String name = text(command.get(0)).toUpperCase();
+        switch (name) {
+            case "PING", "AUTH" -> client.simple("OK");
+            case "GET" -> {
+                if (malformed.contains(text(command.get(1)))) {
+                    client.raw("$invalid\r\n");
+                    return;
+                }
+                Value value = data.get(text(command.get(1)));
+                client.bulk(value == null || value.isExpired() ? null : value.bytes());
+            }
+            case "SET" -> {
+                String key = text(command.get(1));
+                long expiresAt = Long.MAX_VALUE;
+                boolean returnPrevious = false;
+                for (int i = 3; i < command.size(); i++) {
+                    String option = text(command.get(i)).toUpperCase();
+                    if (option.equals("PX")) {
+                        expiresAt = System.currentTimeMillis() + Long.parseLong(text(command.get(++i)));
+                    } else if (option.equals("GET")) {
+                        returnPrevious = true;
+                    }
+                }
+                Value previous = data.put(key, new Value(command.get(2), expiresAt));
+                if (returnPrevious) {
+                    client.bulk(previous == null || previous.isExpired() ? null : previous.bytes());
+                } else {
+                    client.simple("OK");
+                }
+            }
+            case "DEL" -> client.integer(data.remove(text(command.get(1))) == null ? 0 : 1);
+            case "PUBLISH" -> {
+                Set<Client> clients = subscribers.getOrDefault(text(command.get(1)), Set.of());
+                for (Client subscriber : clients) {
+                    try {
+                        subscriber.message(command.get(1), command.get(2));
+                    } catch (IOException ex) {
+                        clients.remove(subscriber);
+                    }
+                }
+                client.integer(clients.size());
+            }
+            case "SUBSCRIBE" -> {
+                for (int i = 1; i < command.size(); i++) {
+                    Set<Client> clients = subscribers.computeIfAbsent(text(command.get(i)), channel -> ConcurrentHashMap.newKeySet());
+                    clients.add(client);
+                    client.subscribed(command.get(i), clients.size());
+                }
+            }
+            default -> client.error("ERR unknown command '" + name + "'");
+        }
+    }
+
+    private static String text(byte[] bytes) {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private record Value(byte[] bytes, long expiresAt) {
+
+        boolean isExpired() {
+            return System.currentTimeMillis() >= expiresAt;
+        }
+    }
+
+    private static final class Client {
+
+        private final Socket socket;
+        private final InputStream in;
+        private final OutputStream out;
+
+        private Client(Socket socket) throws IOException {
+            this.socket = socket;
+            this.in = new BufferedInputStream(socket.getInputStream());
+            this.out = new BufferedOutputStream(socket.getOutputStream());
+        }
+
+        private List<byte[]> readCommand() throws IOException {
+            int type = in.read();
+            if (type == -1) {
+                return null;
+            }
+            int size = Integer.parseInt(readLine());
+            List<byte[]> command = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                in.read();
+                int length = Integer.parseInt(readLine());
+                command.add(in.readNBytes(length));
+                in.readNBytes(2);
+            }
+            return command;
+        }
+
+        private String readLine() throws IOException {
+            StringBuilder line = new StringBuilder();
+            int b;
+            while ((b = in.read()) != '\r') {
+                if (b == -1) {
+                    throw new EOFException();
+                }
+                line.append((char) b);
+            }
+            in.read();
+            return line.toString();
+        }
+
+        private synchronized void simple(String value) throws IOException {
+            write("+" + value + "\r\n");
+            out.flush();
+        }
+
+        private synchronized void raw(String text) throws IOException {
+            write(text);
+            out.flush();
+        }
+
+        private synchronized void error(String message) throws IOException {
+            write("-" + message + "\r\n");
+            out.flush();
+        }
+
+        private synchronized void integer(long value) throws IOException {
+            write(":" + value + "\r\n");
+            out.flush();
+        }
+
+        private synchronized void bulk(byte[] value) throws IOException {
+            writeBulk(value);
+            out.flush();
+        }
+
+        private synchronized void subscribed(byte[] channel, int count) throws IOException {
+            write("*3\r\n");
+            writeBulk("subscribe".getBytes(StandardCharsets.UTF_8));
+            writeBulk(channel);
+            write(":" + count + "\r\n");
+            out.flush();
+        }
+
+        private synchronized void message(byte[] channel, byte[] payload) throws IOException {
+            write("*3\r\n");
+            writeBulk("message".getBytes(StandardCharsets.UTF_8));
+            writeBulk(channel);
+            writeBulk(payload);
+            out.flush();
+        }
+
+        private void writeBulk(byte[] value) throws IOException {
+            if (value == null) {
+                write("$-1\r\n");
+                return;
+            }
+            write("$" + value.length + "\r\n");
+            out.write(value);
+            write("\r\n");
+        }
+
+        private void write(String text) throws IOException {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.challenge.starwars.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExpiringCacheTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    @DisplayName("Debe cargar una sola vez mientras la entrada está fresca")
+    void shouldLoadOnceWhileFresh() {
+
+        ExpiringCache<String, String> cache = ExpiringCache.<String, String>builder("test")
+                .ttl(Duration.ofSeconds(10))
+                .nanoTime(clock::get)
+                .build();
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("1", key -> "v" + loads.incrementAndGet());
+        clock.addAndGet(Duration.ofSeconds(5).toNanos());
+        String value = cache.get("1", key -> "v" + loads.incrementAndGet());
+
+        assertThat(value).isEqualTo("v1");
+        assertThat(cache.stats().hits()).isEqualTo(1);
+        assertThat(cache.stats().misses()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Debe recargar cuando la entrada vence y no hay ventana de revalidación")
+    void shouldReloadWhenExpired() {
+
+        ExpiringCache<String, String> cache = ExpiringCache.<String, String>builder("test")
+                .ttl(Duration.ofSeconds(10))
+                .nanoTime(clock::get)
+                .build();
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("1", key -> "v" + loads.incrementAndGet());
+        clock.addAndGet(Duration.ofSeconds(11).toNanos());
+
+        assertThat(cache.get("1", key -> "v" + loads.incrementAndGet())).isEqualTo("v2");
+        assertThat(cache.stats().misses()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Debe devolver el valor vencido y revalidar en segundo plano")
+    void shouldServeStaleAndRefreshInBackground() {
+
+        ExpiringCache<String, String> cache = ExpiringCache.<String, String>builder("test")
+                .ttl(Duration.ofSeconds(10))
+                .staleWhileRevalidate(Duration.ofSeconds(30))
+                .refreshExecutor(Runnable::run)
+                .nanoTime(clock::get)
+                .build();
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("1", key -> "v" + loads.incrementAndGet());
+        clock.addAndGet(Duration.ofSeconds(15).toNanos());
+
+        assertThat(cache.get("1", key -> "v" + loads.incrementAndGet())).isEqualTo("v1");
+        assertThat(cache.get("1", key -> "v" + loads.incrementAndGet())).isEqualTo("v2");
+        assertThat(cache.stats().staleHits()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Debe revalidar con el refresher y cargar los fallos con el loader")
+    void shouldRevalidateWithRefresher() {
+
+        ExpiringCache<String, String> cache = ExpiringCache.<String, String>builder("test")
+                .ttl(Duration.ofSeconds(10))
+                .staleWhileRevalidate(Duration.ofSeconds(30))
+                .refreshExecutor(Runnable::run)
+                .nanoTime(clock::get)
+                .build();
+
+        assertThat(cache.get("1", key -> "local", key -> "origin")).isEqualTo("local");
+        clock.addAndGet(Duration.ofSeconds(15).toNanos());
+
+        assertThat(cache.get("1", key -> "local", key -> "origin")).isEqualTo("local");
+        assertThat(cache.get("1", key -> "local", key -> "origin")).isEqualTo("origin");
+    }
+
+    @Test
+    @DisplayName("Debe desalojar la entrada menos usada al superar el tamaño máximo")
+    void shouldEvictLeastRecentlyUsed() {
+
+        ExpiringCache<String, String> cache = ExpiringCache.<String, String>builder("test")
+                .maximumSize(2)
+                .nanoTime(clock::get)
+                .build();
+
+        cache.put("1", "a");
+        cache.put("2", "b");
+        cache.get("1", key -> "x");
+        cache.put("3", "c");
+
+        assertThat(cache.getIfPresent("1")).contains("a");
+        assertThat(cache.getIfPresent("2")).isEmpty();
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.stats().evictions()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Debe propagar el error del loader sin guardar nada")
+    void shouldPropagateLoaderFailure() {
+
+        ExpiringCache<String, String> cache = ExpiringCache.<String, String>builder("test")
+                .nanoTime(clock::get)
+                .build();
+
+        assertThatThrownBy(() -> cache.get("1", key -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(cache.size()).isZero();
+        assertThat(cache.stats().loadFailures()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Debe listar las entradas más consultadas que están por vencer")
+    void shouldListHottestEntriesAboutToExpire() {
+
+        ExpiringCache<String, String> cache = ExpiringCache.<String, String>builder("test")
+                .ttl(Duration.ofSeconds(60))
+                .nanoTime(clock::get)
+                .frequencySketch(new CountMinSketch(16))
+                .build();
+
+        for (int i = 0; i < 5; i++) {
+            cache.get("hot", key -> "v");
+        }
+        cache.get("cold", key -> "v");
+        for (int i = 0; i < 3; i++) {
+            cache.get("warm", key -> "v");
+        }
+        clock.addAndGet(Duration.ofSeconds(30).toNanos());
+        for (int i = 0; i < 9; i++) {
+            cache.get("recent", key -> "v");
+        }
+        clock.addAndGet(Duration.ofSeconds(20).toNanos());
+
+        var hottest = cache.hottestExpiringWithin(Duration.ofSeconds(15), 3, 10);
+
+        assertThat(hottest).extracting(ExpiringCache.HotEntry::key).containsExactly("hot", "warm");
+        assertThat(hottest.get(0).frequency()).isGreaterThanOrEqualTo(5);
+        assertThat(hottest.get(0).timeToExpiry()).isEqualTo(Duration.ofSeconds(10));
+        assertThat(cache.hottestExpiringWithin(Duration.ofSeconds(15), 3, 1)).hasSize(1);
+
+        cache.put("hot", "v2");
+        clock.addAndGet(Duration.ofSeconds(50).toNanos());
+        assertThat(cache.hottestExpiringWithin(Duration.ofSeconds(15), 3, 10))
+                .extracting(ExpiringCache.HotEntry::key)
+                .doesNotContain("hot");
+    }
+}
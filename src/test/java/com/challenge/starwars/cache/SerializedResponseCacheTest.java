@@ -0,0 +1,57 @@
+package com.challenge.starwars.cache;
+
+import com.challenge.starwars.cache.SerializedResponseCache.SerializedBody;
+import com.challenge.starwars.dto.response.PeopleDetailResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SerializedResponseCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Debe serializar una sola vez por ETag y reutilizar los bytes")
+    void shouldSerializeOncePerEtag() {
+
+        SerializedResponseCache cache = cache(1024);
+        Versioned<PeopleDetailResponse> person = Versioned.of(
+                PeopleDetailResponse.builder().name("Luke Skywalker").height("172").build(), "1");
+
+        SerializedBody first = cache.get(person);
+        SerializedBody second = cache.get(person);
+
+        assertThat(second).isSameAs(first);
+        assertThat(new String(first.json(), StandardCharsets.UTF_8)).contains("\"name\":\"Luke Skywalker\"");
+        assertThat(first.hasGzip()).isFalse();
+        assertThat(cache.getBodies().stats().misses()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Debe precalcular la variante gzip de los cuerpos grandes")
+    void shouldPrecomputeGzipForLargeBodies() throws IOException {
+
+        SerializedResponseCache cache = cache(16);
+        Versioned<PeopleDetailResponse> person = Versioned.of(
+                PeopleDetailResponse.builder().name("Obi-Wan Kenobi").gender("male").build(), "10");
+
+        SerializedBody body = cache.get(person);
+
+        assertThat(body.hasGzip()).isTrue();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body.gzip()))) {
+            assertThat(in.readAllBytes()).isEqualTo(body.json());
+        }
+    }
+
+    private SerializedResponseCache cache(int gzipMinSize) {
+        return new SerializedResponseCache(objectMapper,
+                ExpiringCache.<String, SerializedBody>builder("test").build(), gzipMinSize);
+    }
+}
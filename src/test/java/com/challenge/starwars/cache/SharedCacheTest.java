@@ -0,0 +1,121 @@
+package com.challenge.starwars.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class SharedCacheTest {
+
+    private static final String CHANNEL = "test:people:invalidations";
+
+    private EmbeddedRedisServer server;
+    private RedisCacheBackend replicaA;
+    private RedisCacheBackend replicaB;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = new EmbeddedRedisServer();
+        replicaA = backend(server.getPort());
+        replicaB = backend(server.getPort());
+    }
+
+    @AfterEach
+    void stopServer() throws IOException {
+        replicaA.close();
+        replicaB.close();
+        server.close();
+    }
+
+    private static RedisCacheBackend backend(int port) {
+        return new RedisCacheBackend("localhost", port, "secret", Duration.ofSeconds(1), 4, Duration.ofMillis(200));
+    }
+
+    private static SharedCache<String> cache(SharedCacheBackend backend) {
+        return SharedCache.<String>builder("people")
+                .backend(backend)
+                .keyPrefix("test:")
+                .ttl(Duration.ofMinutes(1))
+                .codec(value -> value.getBytes(StandardCharsets.UTF_8), bytes -> new String(bytes, StandardCharsets.UTF_8))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Debe compartir entre réplicas los valores serializados")
+    void shouldShareValuesBetweenReplicas() {
+
+        SharedCache<String> cacheA = cache(replicaA);
+        SharedCache<String> cacheB = cache(replicaB);
+
+        assertThat(cacheB.get("1")).isEmpty();
+        cacheA.put("1", "Luke Skywalker");
+
+        assertThat(server.containsKey("test:people:1")).isTrue();
+        assertThat(cacheB.get("1")).contains("Luke Skywalker");
+        assertThat(cacheB.stats().hits()).isEqualTo(1);
+        assertThat(cacheB.stats().misses()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Debe avisar a las demás réplicas sólo cuando el valor cambia")
+    void shouldPublishInvalidationsWhenValueChanges() {
+
+        SharedCache<String> cacheA = cache(replicaA);
+        SharedCache<String> cacheB = cache(replicaB);
+        List<String> invalidatedOnA = new CopyOnWriteArrayList<>();
+        List<String> invalidatedOnB = new CopyOnWriteArrayList<>();
+        cacheA.onInvalidation(invalidatedOnA::add);
+        cacheB.onInvalidation(invalidatedOnB::add);
+        await().atMost(Duration.ofSeconds(5)).until(() -> server.subscriberCount(CHANNEL) == 2);
+
+        cacheA.put("1", "Luke Skywalker");
+        cacheA.put("1", "Luke Skywalker");
+        cacheA.put("1", "Luke Skywalker (Jedi)");
+        cacheB.invalidate("2");
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> invalidatedOnB.size() == 1 && invalidatedOnA.size() == 1);
+        assertThat(invalidatedOnB).containsExactly("1");
+        assertThat(invalidatedOnA).containsExactly("2");
+        assertThat(cacheA.stats().invalidationsPublished()).isEqualTo(1);
+        assertThat(cacheB.stats().invalidationsReceived()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Debe cerrar la conexión cuando no puede interpretar la respuesta")
+    void shouldCloseConnectionOnMalformedReply() {
+
+        SharedCache<String> cacheA = cache(replicaA);
+        server.respondMalformed("test:people:1");
+
+        assertThat(cacheA.get("1")).isEmpty();
+        await().atMost(Duration.ofSeconds(5)).until(() -> server.openConnections() == 0);
+
+        cacheA.put("2", "C-3PO");
+        assertThat(cacheA.get("2")).contains("C-3PO");
+        assertThat(cacheA.stats().errors()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Debe tratar la caída del servidor como un fallo de caché")
+    void shouldDegradeToMissWhenServerIsDown() throws IOException {
+
+        SharedCache<String> cacheA = cache(replicaA);
+        cacheA.put("1", "Luke Skywalker");
+        server.close();
+
+        assertThat(cacheA.get("1")).isEmpty();
+        cacheA.put("2", "C-3PO");
+
+        assertThat(cacheA.stats().errors()).isEqualTo(2);
+        assertThat(cacheA.stats().misses()).isEqualTo(1);
+    }
+}
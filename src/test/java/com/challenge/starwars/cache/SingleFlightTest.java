@@ -0,0 +1,100 @@
+package com.challenge.starwars.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+    @Test
+    @DisplayName("Debe ejecutar una sola vez las llamadas concurrentes con la misma clave")
+    void shouldCollapseConcurrentCalls() throws Exception {
+
+        int callers = 8;
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> singleFlight.execute("people:1", () -> {
+                    executions.incrementAndGet();
+                    await(release);
+                    return "Luke Skywalker";
+                })));
+            }
+
+            waitUntil(() -> singleFlight.getCollapsed() == callers - 1);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("Luke Skywalker");
+            }
+        }
+
+        assertThat(executions.get()).isEqualTo(1);
+        assertThat(singleFlight.getExecutions()).isEqualTo(1);
+        assertThat(singleFlight.getInFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Debe propagar la misma excepción a todos los invocadores en espera")
+    void shouldShareFailureWithWaiters() throws Exception {
+
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("SWAPI caído");
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> leader = executor.submit(() -> singleFlight.execute("page:1:10", () -> {
+                await(release);
+                throw failure;
+            }));
+            waitUntil(() -> singleFlight.getInFlight() == 1);
+            Future<String> follower = executor.submit(() -> singleFlight.execute("page:1:10", () -> "no debe ejecutarse"));
+            waitUntil(() -> singleFlight.getCollapsed() == 1);
+            release.countDown();
+
+            assertThatThrownBy(leader::get).hasCause(failure);
+            assertThatThrownBy(follower::get).hasCause(failure);
+        }
+    }
+
+    @Test
+    @DisplayName("Debe volver a ejecutar cuando la llamada anterior ya terminó")
+    void shouldExecuteAgainAfterCompletion() {
+
+        singleFlight.execute("people:1", () -> "a");
+
+        assertThat(singleFlight.execute("people:1", () -> "b")).isEqualTo("b");
+        assertThat(singleFlight.getExecutions()).isEqualTo(2);
+        assertThat(singleFlight.getCollapsed()).isZero();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void waitUntil(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+}
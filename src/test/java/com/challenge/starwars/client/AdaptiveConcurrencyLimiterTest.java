@@ -0,0 +1,80 @@
+package com.challenge.starwars.client;
+
+import com.challenge.starwars.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("Debe reducir el límite cuando el RTT de SWAPI crece")
+    void shouldShrinkLimitWhenLatencyGrows() {
+
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(50, 4, 200, 0.1, 1.5, 0.2);
+        for (int i = 0; i < 50; i++) {
+            limiter.onSample(10 * MILLI);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(50);
+
+        for (int i = 0; i < 30; i++) {
+            limiter.onSample(200 * MILLI);
+        }
+
+        assertThat(limiter.getLimit()).isLessThan(10);
+    }
+
+    @Test
+    @DisplayName("Debe aumentar el límite si está en uso y la latencia se mantiene")
+    void shouldGrowLimitWhenSaturatedAndLatencyIsStable() {
+
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 4, 200, 0.0, 1.5, 0.2);
+
+        int limit = nested(limiter, 4, () -> {
+            for (int i = 0; i < 20; i++) {
+                limiter.onSample(10 * MILLI);
+            }
+            return limiter.getLimit();
+        });
+
+        assertThat(limit).isGreaterThan(4);
+    }
+
+    @Test
+    @DisplayName("Debe rechazar al instante y reservar capacidad a las peticiones servidas desde caché")
+    void shouldShedUpstreamLoadAndKeepReservedShare() {
+
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 4, 200, 0.2, 1.5, 0.2);
+
+        nested(limiter, 8, () -> {
+            assertThatThrownBy(() -> limiter.execute(false, () -> "swapi"))
+                    .isInstanceOf(ServiceUnavailableException.class);
+            assertThat(limiter.execute(true, () -> "caché")).isEqualTo("caché");
+            return null;
+        });
+
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Debe reducir el límite ante errores de SWAPI")
+    void shouldBackOffOnDrops() {
+
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(100, 4, 200, 0.1, 1.5, 0.2);
+
+        limiter.onDrop();
+
+        assertThat(limiter.getLimit()).isEqualTo(90);
+    }
+
+    private static <T> T nested(AdaptiveConcurrencyLimiter limiter, int depth, Supplier<T> innermost) {
+        return depth == 0 ? innermost.get() : limiter.execute(false, () -> nested(limiter, depth - 1, innermost));
+    }
+}
@@ -0,0 +1,67 @@
+package com.challenge.starwars.client;
+
+import com.challenge.starwars.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SwapiBulkheadTest {
+
+    @Test
+    @DisplayName("Debe rechazar con 503 cuando no hay permisos disponibles a tiempo")
+    void shouldRejectWhenSaturated() throws Exception {
+
+        SwapiBulkhead bulkhead = new SwapiBulkhead(1, Duration.ofMillis(20));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> slowCall = executor.submit(() -> bulkhead.execute(() -> {
+                started.countDown();
+                await(release);
+                return "ok";
+            }));
+            started.await(5, TimeUnit.SECONDS);
+
+            assertThat(bulkhead.getActiveCalls()).isEqualTo(1);
+            assertThatThrownBy(() -> bulkhead.execute(() -> "rechazada"))
+                    .isInstanceOf(ServiceUnavailableException.class);
+
+            release.countDown();
+            assertThat(slowCall.get(5, TimeUnit.SECONDS)).isEqualTo("ok");
+        }
+
+        assertThat(bulkhead.getRejectedCalls()).isEqualTo(1);
+        assertThat(bulkhead.getActiveCalls()).isZero();
+    }
+
+    @Test
+    @DisplayName("Debe liberar el permiso aunque la llamada falle")
+    void shouldReleasePermitOnFailure() {
+
+        SwapiBulkhead bulkhead = new SwapiBulkhead(1, Duration.ofMillis(20));
+
+        assertThatThrownBy(() -> bulkhead.execute(() -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(bulkhead.execute(() -> "ok")).isEqualTo("ok");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
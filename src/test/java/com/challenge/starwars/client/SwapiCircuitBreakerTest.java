@@ -0,0 +1,117 @@
+package com.challenge.starwars.client;
+
+import com.challenge.starwars.exception.ResourceNotFoundException;
+import com.challenge.starwars.exception.ServiceUnavailableException;
+import com.challenge.starwars.exception.SwapiUnavailableException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SwapiCircuitBreakerTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private final SwapiCircuitBreaker circuitBreaker =
+            new SwapiCircuitBreaker(4, 4, 50, Duration.ofSeconds(10), 2, clock::get);
+
+    @Test
+    @DisplayName("Debe abrirse al superar el umbral de fallos y rechazar sin llamar a SWAPI")
+    void shouldOpenAndRejectFast() {
+
+        failTimes(4);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThat(circuitBreaker.getState()).isEqualTo(SwapiCircuitBreaker.State.OPEN);
+        assertThatThrownBy(() -> circuitBreaker.execute(calls::incrementAndGet))
+                .isInstanceOf(ServiceUnavailableException.class)
+                .satisfies(ex -> assertThat(((ServiceUnavailableException) ex).getRetryAfter())
+                        .isEqualTo(Duration.ofSeconds(10)));
+
+        assertThat(calls.get()).isZero();
+        assertThat(circuitBreaker.getRejectedCalls()).isEqualTo(1);
+        assertThat(circuitBreaker.getTransitions(SwapiCircuitBreaker.State.OPEN)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Debe cerrarse tras las llamadas de prueba exitosas en estado semiabierto")
+    void shouldCloseAfterSuccessfulProbes() {
+
+        failTimes(4);
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        assertThat(circuitBreaker.getState()).isEqualTo(SwapiCircuitBreaker.State.HALF_OPEN);
+        assertThat(circuitBreaker.execute(() -> "ok")).isEqualTo("ok");
+        assertThat(circuitBreaker.execute(() -> "ok")).isEqualTo("ok");
+
+        assertThat(circuitBreaker.getState()).isEqualTo(SwapiCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("Debe volver a abrirse si falla una llamada de prueba")
+    void shouldReopenWhenProbeFails() {
+
+        failTimes(4);
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+        failTimes(1);
+
+        assertThat(circuitBreaker.getState()).isEqualTo(SwapiCircuitBreaker.State.OPEN);
+        assertThat(circuitBreaker.getTransitions(SwapiCircuitBreaker.State.OPEN)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("No debe contar como fallo un recurso inexistente")
+    void shouldIgnoreNotFound() {
+
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> circuitBreaker.execute(() -> {
+                throw new ResourceNotFoundException("no existe");
+            })).isInstanceOf(ResourceNotFoundException.class);
+        }
+
+        assertThat(circuitBreaker.getState()).isEqualTo(SwapiCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("Debe contar como fallo un error que no sea un recurso inexistente")
+    void shouldCountUnexpectedErrorsAsFailures() {
+
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> circuitBreaker.execute(() -> {
+                throw new IllegalStateException("respuesta ilegible");
+            })).isInstanceOf(IllegalStateException.class);
+        }
+
+        assertThat(circuitBreaker.getState()).isEqualTo(SwapiCircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    @DisplayName("Debe descartar el resultado de una llamada admitida antes de cambiar de estado")
+    void shouldDiscardOutcomeOfCallAdmittedInPreviousState() {
+
+        String result = circuitBreaker.execute(() -> {
+            failTimes(4);
+            clock.addAndGet(Duration.ofSeconds(10).toNanos());
+            return "tarde";
+        });
+        assertThat(result).isEqualTo("tarde");
+        assertThat(circuitBreaker.execute(() -> "ok")).isEqualTo("ok");
+
+        assertThat(circuitBreaker.getState()).isEqualTo(SwapiCircuitBreaker.State.HALF_OPEN);
+        assertThat(circuitBreaker.execute(() -> "ok")).isEqualTo("ok");
+        assertThat(circuitBreaker.getState()).isEqualTo(SwapiCircuitBreaker.State.CLOSED);
+    }
+
+    private void failTimes(int times) {
+        for (int i = 0; i < times; i++) {
+            assertThatThrownBy(() -> circuitBreaker.execute(() -> {
+                throw new SwapiUnavailableException("caído");
+            })).isInstanceOf(SwapiUnavailableException.class);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.challenge.starwars.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SwapiHedgingTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private SwapiHedging hedging;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        hedging.close();
+    }
+
+    @Test
+    @DisplayName("Debe lanzar una cobertura si la llamada supera el percentil y quedarse con la primera respuesta")
+    void shouldHedgeSlowCall() {
+
+        hedging = new SwapiHedging(true, 0.5, Duration.ofMillis(20), 16, 4, 1.0, 1);
+        warmUp();
+
+        String result = hedging.execute(firstCallBlocks());
+
+        assertThat(result).isEqualTo("cobertura");
+        assertThat(hedging.getHedgesSent()).isEqualTo(1);
+        assertThat(hedging.getHedgesWon()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("No debe lanzar coberturas sin presupuesto disponible")
+    void shouldRespectBudget() {
+
+        hedging = new SwapiHedging(true, 0.5, Duration.ofMillis(20), 16, 4, 0.0, 1);
+        warmUp();
+        Supplier<String> slow = firstCallBlocks();
+
+        new Thread(() -> {
+            sleep(100);
+            release.countDown();
+        }).start();
+
+        assertThat(hedging.execute(slow)).isEqualTo("original");
+        assertThat(hedging.getHedgesSent()).isZero();
+    }
+
+    @Test
+    @DisplayName("No debe estimar la demora hasta reunir suficientes muestras")
+    void shouldWaitForEnoughSamples() {
+
+        hedging = new SwapiHedging(true, 0.5, Duration.ofMillis(20), 16, 4, 1.0, 1);
+
+        hedging.execute(() -> "ok");
+
+        assertThat(hedging.getHedgeDelay()).isNull();
+        warmUp();
+        assertThat(hedging.getHedgeDelay()).isEqualTo(Duration.ofMillis(20));
+    }
+
+    private void warmUp() {
+        for (int i = 0; i < 4; i++) {
+            hedging.execute(() -> "ok");
+        }
+    }
+
+    private Supplier<String> firstCallBlocks() {
+        AtomicInteger calls = new AtomicInteger();
+        return () -> {
+            if (calls.incrementAndGet() == 1) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                return "original";
+            }
+            return "cobertura";
+        };
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
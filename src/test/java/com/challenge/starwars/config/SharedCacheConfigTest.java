@@ -0,0 +1,44 @@
+package com.challenge.starwars.config;
+
+import com.challenge.starwars.cache.SharedCacheBackend;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SharedCacheConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withInitializer(context -> context.getBeanFactory()
+                    .setConversionService(ApplicationConversionService.getSharedInstance()))
+            .withUserConfiguration(SharedCacheConfig.class)
+            .withBean(ObjectMapper.class)
+            .withPropertyValues("swapi.cache.shared.enabled=true");
+
+    @Test
+    @DisplayName("Debe arrancar con un servidor RESP2 sin TLS")
+    void shouldStartWithPlainServer() {
+
+        contextRunner.run(context -> assertThat(context).hasSingleBean(SharedCacheBackend.class));
+    }
+
+    @Test
+    @DisplayName("Debe fallar al arrancar si se pide TLS, Sentinel o Cluster")
+    void shouldRejectUnsupportedDeployments() {
+
+        contextRunner.withPropertyValues("swapi.cache.shared.ssl=true")
+                .run(context -> assertThat(context).hasFailed()
+                        .getFailure().rootCause().hasMessageContaining("TLS"));
+        contextRunner.withPropertyValues("spring.data.redis.url=rediss://cache.example.com:6380")
+                .run(context -> assertThat(context).hasFailed());
+        contextRunner.withPropertyValues("spring.data.redis.sentinel.master=mymaster")
+                .run(context -> assertThat(context).hasFailed()
+                        .getFailure().rootCause().hasMessageContaining("Sentinel"));
+        contextRunner.withPropertyValues("spring.data.redis.cluster.nodes=10.0.0.1:6379,10.0.0.2:6379")
+                .run(context -> assertThat(context).hasFailed()
+                        .getFailure().rootCause().hasMessageContaining("Cluster"));
+    }
+}
@@ -0,0 +1,69 @@
+package com.challenge.starwars.controller;
+
+import com.challenge.starwars.cache.ExpiringCache;
+import com.challenge.starwars.entity.User;
+import com.challenge.starwars.service.JwtServiceImpl;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class AuthenticationControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${spring.jwt.secret}")
+    private String secret;
+
+    @Test
+    @DisplayName("Logout con un access token expirado debe revocar igualmente el refresh token")
+    void shouldRevokeRefreshTokenOnLogoutWithExpiredAccessToken() throws Exception {
+
+        String username = "logout-" + UUID.randomUUID() + "@test.com";
+        String credentials = "{\"username\":\"" + username + "\",\"password\":\"password123\"}";
+        mockMvc.perform(post("/api/auth/register").contentType(MediaType.APPLICATION_JSON).content(credentials))
+                .andExpect(status().is2xxSuccessful());
+        JsonNode login = objectMapper.readTree(mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON).content(credentials))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        String refreshBody = "{\"refreshToken\":\"" + login.get("refreshToken").asText() + "\"}";
+
+        mockMvc.perform(post("/api/auth/logout")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + expiredToken(username))
+                        .contentType(MediaType.APPLICATION_JSON).content(refreshBody))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(post("/api/auth/refresh")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + expiredToken(username))
+                        .contentType(MediaType.APPLICATION_JSON).content(refreshBody))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private String expiredToken(String username) {
+        JwtServiceImpl expired = new JwtServiceImpl(secret, -60_000,
+                ExpiringCache.<String, Claims>builder("jwt.verified").build());
+        return expired.generateToken(Map.of("role", "USER"),
+                User.builder().username(username).password("x").role("USER").build());
+    }
+}
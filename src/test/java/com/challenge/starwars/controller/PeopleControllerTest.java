@@ -0,0 +1,122 @@
+package com.challenge.starwars.controller;
+
+import com.challenge.starwars.cache.ExpiringCache;
+import com.challenge.starwars.cache.SerializedResponseCache;
+import com.challenge.starwars.cache.SerializedResponseCache.SerializedBody;
+import com.challenge.starwars.cache.Versioned;
+import com.challenge.starwars.dto.response.PeopleDetailResponse;
+import com.challenge.starwars.service.PeopleService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class PeopleControllerTest {
+
+    private static final PeopleDetailResponse LUKE = PeopleDetailResponse.builder()
+            .name("Luke Skywalker")
+            .gender("male")
+            .height("172")
+            .url("https://www.swapi.tech/api/people/1")
+            .build();
+
+    private static final Versioned<PeopleDetailResponse> VERSIONED = Versioned.of(LUKE, "1");
+
+    private final PeopleService peopleService = mock(PeopleService.class);
+
+    private final MockMvc mockMvc = mockMvc();
+
+    private MockMvc mockMvc() {
+        when(peopleService.getVersionedPersonById("1")).thenReturn(VERSIONED);
+        SerializedResponseCache serializedResponseCache = new SerializedResponseCache(new ObjectMapper(),
+                ExpiringCache.<String, SerializedBody>builder("people.serialized").build(), 0);
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(
+                Map.of("serializedResponseCache", serializedResponseCache));
+        PeopleController controller = new PeopleController(peopleService,
+                CacheControl.maxAge(Duration.ofMinutes(5)),
+                beanFactory.getBeanProvider(SerializedResponseCache.class));
+        return MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    @DisplayName("Debe etiquetar de forma distinta la variante gzip y la identidad")
+    void shouldUseEncodingSpecificEtags() throws Exception {
+
+        MvcResult gzip = mockMvc.perform(get("/api/people/1").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andReturn();
+        MvcResult identity = mockMvc.perform(get("/api/people/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andExpect(content().json("{\"name\":\"Luke Skywalker\"}"))
+                .andReturn();
+
+        assertThat(identity.getResponse().getHeader(HttpHeaders.ETAG)).isEqualTo(VERSIONED.etag());
+        assertThat(gzip.getResponse().getHeader(HttpHeaders.ETAG))
+                .isNotEqualTo(VERSIONED.etag())
+                .endsWith("-gz\"");
+    }
+
+    @Test
+    @DisplayName("Debe responder 304 sólo si el ETag es el de la variante negociada")
+    void shouldRevalidateAgainstNegotiatedVariant() throws Exception {
+
+        String gzipEtag = mockMvc.perform(get("/api/people/1").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/people/1")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, gzipEtag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, gzipEtag))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING));
+
+        mockMvc.perform(get("/api/people/1")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "identity")
+                        .header(HttpHeaders.IF_NONE_MATCH, gzipEtag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, VERSIONED.etag()))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+
+        mockMvc.perform(get("/api/people/1")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0")
+                        .header(HttpHeaders.IF_NONE_MATCH, VERSIONED.etag()))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @DisplayName("Debe dejar la negociación a Spring si el cliente no acepta JSON")
+    void shouldLeaveNegotiationToSpringWhenJsonIsNotAccepted() throws Exception {
+
+        mockMvc.perform(get("/api/people/1")
+                        .header(HttpHeaders.ACCEPT, "application/xml")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isNotAcceptable())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+
+        mockMvc.perform(get("/api/people/1")
+                        .header(HttpHeaders.ACCEPT, "application/*")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+    }
+}
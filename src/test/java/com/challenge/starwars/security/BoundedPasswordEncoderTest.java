@@ -0,0 +1,102 @@
+package com.challenge.starwars.security;
+
+import com.challenge.starwars.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedPasswordEncoderTest {
+
+    @Test
+    @DisplayName("Debe codificar y verificar en el pool de hashing")
+    void shouldEncodeAndMatchOnPool() {
+
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(
+                new BCryptPasswordEncoder(4), 1, 4, Duration.ofMillis(10))) {
+
+            String hash = encoder.encode("secreto");
+
+            assertThat(encoder.matches("secreto", hash)).isTrue();
+            assertThat(encoder.matches("otro", hash)).isFalse();
+        }
+    }
+
+    @Test
+    @DisplayName("Debe rechazar con 503 y Retry-After cuando la cola está llena")
+    void shouldRejectWhenQueueIsFull() throws Exception {
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder blocking = new BCryptPasswordEncoder(4) {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                await(release);
+                return super.encode(rawPassword);
+            }
+        };
+
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(blocking, 1, 1, Duration.ofMillis(300));
+             ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+
+            Future<String> running = callers.submit(() -> encoder.encode("a"));
+            started.await(5, TimeUnit.SECONDS);
+            Future<String> queued = callers.submit(() -> encoder.encode("b"));
+            while (encoder.getQueuedTasks() == 0) {
+                Thread.onSpinWait();
+            }
+
+            assertThatThrownBy(() -> encoder.encode("c"))
+                    .isInstanceOf(ServiceUnavailableException.class)
+                    .satisfies(ex -> assertThat(((ServiceUnavailableException) ex).getRetryAfter())
+                            .isEqualTo(Duration.ofMillis(600)));
+            assertThat(encoder.getRejectedTasks()).isEqualTo(1);
+
+            release.countDown();
+            assertThat(running.get(5, TimeUnit.SECONDS)).startsWith("$2a$04$");
+            assertThat(queued.get(5, TimeUnit.SECONDS)).startsWith("$2a$04$");
+        }
+    }
+
+    @Test
+    @DisplayName("Debe pedir re-hashear cuando el coste guardado difiere del calibrado, también al bajar")
+    void shouldRequestRehashWhenCostChangesInEitherDirection() {
+
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(
+                new CalibratedBCryptPasswordEncoder(5), 1, 4, Duration.ofMillis(10))) {
+
+            assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("secreto"))).isTrue();
+            assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("secreto"))).isTrue();
+            assertThat(encoder.upgradeEncoding(encoder.encode("secreto"))).isFalse();
+        }
+    }
+
+    @Test
+    @DisplayName("La calibración debe respetar los límites de coste")
+    void shouldCalibrateWithinBounds() {
+
+        BCryptCalibration.Result result = BCryptCalibration.calibrate(Duration.ofMillis(1), 4, 6);
+
+        assertThat(result.cost()).isBetween(4, 6);
+        assertThat(result.measuredHashTime()).isPositive();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
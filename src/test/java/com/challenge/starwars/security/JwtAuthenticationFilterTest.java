@@ -0,0 +1,125 @@
+package com.challenge.starwars.security;
+
+import com.challenge.starwars.cache.ExpiringCache;
+import com.challenge.starwars.entity.User;
+import com.challenge.starwars.service.JwtService;
+import com.challenge.starwars.service.JwtServiceImpl;
+import com.challenge.starwars.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class JwtAuthenticationFilterTest {
+
+    private static final String SECRET = "Nb8JdKmdp9nZix1SUXo29OJTrMRz6LBgAVETa2Luj5c";
+
+    private final JwtService jwtService = new JwtServiceImpl(SECRET, 60_000,
+            ExpiringCache.<String, Claims>builder("jwt.verified").build());
+
+    private final UserDetailsService userDetailsService = mock(UserDetailsService.class);
+
+    private final TokenRevocationService tokenRevocationService = mock(TokenRevocationService.class);
+
+    private final User user = User.builder().username("leia").password("x").role("USER").build();
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Debe autenticar a partir de los claims sin consultar la base de datos")
+    void shouldAuthenticateFromClaimsOnly() throws Exception {
+
+        JwtAuthenticationFilter filter = filter(Duration.ZERO);
+
+        Authentication authentication = authenticate(filter, token());
+
+        assertThat(authentication).isNotNull();
+        assertThat(authentication.getName()).isEqualTo("leia");
+        assertThat(authentication.getAuthorities()).extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_USER");
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    @DisplayName("Debe recomprobar la cuenta como mucho una vez por intervalo")
+    void shouldRecheckAccountOncePerInterval() throws Exception {
+
+        when(userDetailsService.loadUserByUsername("leia")).thenReturn(user);
+        JwtAuthenticationFilter filter = filter(Duration.ofMinutes(5));
+        String token = token();
+
+        assertThat(authenticate(filter, token)).isNotNull();
+        SecurityContextHolder.clearContext();
+        assertThat(authenticate(filter, token)).isNotNull();
+
+        verify(userDetailsService, times(1)).loadUserByUsername("leia");
+    }
+
+    @Test
+    @DisplayName("No debe autenticar si la cuenta ya no existe")
+    void shouldRejectDeletedAccount() throws Exception {
+
+        when(userDetailsService.loadUserByUsername("leia")).thenThrow(new UsernameNotFoundException("Usuario no encontrado"));
+        JwtAuthenticationFilter filter = filter(Duration.ofMinutes(5));
+
+        assertThat(authenticate(filter, token())).isNull();
+    }
+
+    @Test
+    @DisplayName("No debe autenticar un token revocado")
+    void shouldRejectRevokedToken() throws Exception {
+
+        when(tokenRevocationService.isRevoked(any(Claims.class))).thenReturn(true);
+
+        assertThat(authenticate(filter(Duration.ZERO), token())).isNull();
+    }
+
+    @Test
+    @DisplayName("Debe seguir la cadena sin autenticar si el token expiró")
+    void shouldContinueUnauthenticatedWithExpiredToken() throws Exception {
+
+        JwtService expiredTokens = new JwtServiceImpl(SECRET, -60_000,
+                ExpiringCache.<String, Claims>builder("jwt.verified").build());
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/logout");
+        request.addHeader("Authorization", "Bearer " + expiredTokens.generateToken(Map.of("role", "USER"), user));
+        MockFilterChain chain = new MockFilterChain();
+
+        filter(Duration.ZERO).doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isSameAs(request);
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    private JwtAuthenticationFilter filter(Duration recheckInterval) {
+        return new JwtAuthenticationFilter(jwtService, tokenRevocationService, userDetailsService, true,
+                ExpiringCache.<String, Boolean>builder("jwt.account.checks").ttl(recheckInterval).build());
+    }
+
+    private String token() {
+        return jwtService.generateToken(Map.of("role", "USER"), user);
+    }
+
+    private Authentication authenticate(JwtAuthenticationFilter filter, String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/people/1");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
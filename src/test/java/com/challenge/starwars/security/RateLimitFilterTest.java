@@ -0,0 +1,133 @@
+package com.challenge.starwars.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private final RateLimitFilter filter = new RateLimitFilter(new RateLimitProperties(true, 1, List.of(
+            new RateLimitProperties.Rule("/api/people/batch", 2, 3, Duration.ofMinutes(1)),
+            new RateLimitProperties.Rule("/api/people/**", 100, 100, Duration.ofMinutes(1))
+    )), new ObjectMapper(), now::get);
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Debe responder 429 con Retry-After al superar el límite del usuario")
+    void shouldRejectWhenUserLimitIsExceeded() throws Exception {
+
+        authenticateAs("leia");
+        assertThat(call("/api/people/batch").getHeader("RateLimit-Remaining")).isEqualTo("1");
+        assertThat(call("/api/people/batch").getHeader("RateLimit-Remaining")).isEqualTo("0");
+
+        MockHttpServletResponse rejected = call("/api/people/batch");
+
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("30");
+        assertThat(rejected.getHeader("RateLimit-Policy")).isEqualTo("2;w=60");
+        assertThat(rejected.getContentAsString()).contains("\"status\":429");
+
+        assertThat(call("/api/people/1").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("Debe aplicar el límite global aunque cada usuario esté dentro del suyo")
+    void shouldRejectWhenGlobalLimitIsExceeded() throws Exception {
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        filter.bindTo(registry);
+
+        for (String user : List.of("leia", "luke", "han")) {
+            authenticateAs(user);
+            assertThat(call("/api/people/batch").getStatus()).isEqualTo(200);
+        }
+        authenticateAs("chewie");
+
+        assertThat(call("/api/people/batch").getStatus()).isEqualTo(429);
+        assertThat(registry.get("rate.limit.rejected").tag("scope", "global").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("No debe rechazar por límite global mientras quede alguna franja con fichas")
+    void shouldProbeAllGlobalStripesBeforeRejecting() throws Exception {
+
+        RateLimitFilter striped = new RateLimitFilter(new RateLimitProperties(true, 4, List.of(
+                new RateLimitProperties.Rule("/api/people/**", 100, 8, Duration.ofMinutes(1))
+        )), new ObjectMapper(), now::get);
+
+        for (int i = 0; i < 8; i++) {
+            authenticateAs("user-" + i);
+            assertThat(call(striped, "/api/people/1").getStatus()).isEqualTo(200);
+        }
+        authenticateAs("user-8");
+
+        assertThat(call(striped, "/api/people/1").getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    @DisplayName("Debe devolver la ficha del usuario si la petición se rechaza por el límite global")
+    void shouldRefundUserTokenWhenGlobalLimitRejects() throws Exception {
+
+        for (String user : List.of("leia", "luke", "han")) {
+            authenticateAs(user);
+            call("/api/people/batch");
+        }
+        authenticateAs("chewie");
+        assertThat(call("/api/people/batch").getStatus()).isEqualTo(429);
+        assertThat(call("/api/people/batch").getStatus()).isEqualTo(429);
+
+        now.addAndGet(Duration.ofSeconds(20).toNanos());
+        MockHttpServletResponse allowed = call("/api/people/batch");
+
+        assertThat(allowed.getStatus()).isEqualTo(200);
+        assertThat(allowed.getHeader("RateLimit-Remaining")).isEqualTo("1");
+    }
+
+    @Test
+    @DisplayName("Debe limitar por IP las peticiones anónimas")
+    void shouldLimitAnonymousRequestsByAddress() throws Exception {
+
+        call("/api/people/batch");
+        call("/api/people/batch");
+
+        assertThat(call("/api/people/batch").getStatus()).isEqualTo(429);
+
+        now.addAndGet(Duration.ofSeconds(30).toNanos());
+        assertThat(call("/api/people/batch").getStatus()).isEqualTo(200);
+    }
+
+    private void authenticateAs(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(username, null, List.of()));
+    }
+
+    private MockHttpServletResponse call(String uri) throws Exception {
+        return call(filter, uri);
+    }
+
+    private MockHttpServletResponse call(RateLimitFilter filter, String uri) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,62 @@
+package com.challenge.starwars.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    private static final long SECOND = Duration.ofSeconds(1).toNanos();
+
+    @Test
+    @DisplayName("Debe admitir una ráfaga igual a la capacidad y rechazar la siguiente")
+    void shouldAllowBurstUpToCapacity() {
+
+        TokenBucket bucket = new TokenBucket(3, Duration.ofSeconds(3));
+
+        assertThat(bucket.tryAcquire(0).remaining()).isEqualTo(2);
+        assertThat(bucket.tryAcquire(0).remaining()).isEqualTo(1);
+        assertThat(bucket.tryAcquire(0).remaining()).isZero();
+
+        TokenBucket.Decision rejected = bucket.tryAcquire(0);
+        assertThat(rejected.allowed()).isFalse();
+        assertThat(rejected.retryAfterNanos()).isEqualTo(SECOND);
+        assertThat(rejected.resetNanos()).isEqualTo(3 * SECOND);
+    }
+
+    @Test
+    @DisplayName("Debe reponer fichas de forma continua según el periodo")
+    void shouldRefillOverTime() {
+
+        TokenBucket bucket = new TokenBucket(2, Duration.ofSeconds(2));
+        bucket.tryAcquire(0);
+        bucket.tryAcquire(0);
+
+        assertThat(bucket.tryAcquire(SECOND / 2).allowed()).isFalse();
+        assertThat(bucket.tryAcquire(SECOND).allowed()).isTrue();
+        assertThat(bucket.isIdle(SECOND)).isFalse();
+        assertThat(bucket.isIdle(3 * SECOND)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Debe devolver una ficha sin superar la capacidad")
+    void shouldReleaseTokenWithoutExceedingCapacity() {
+
+        TokenBucket bucket = new TokenBucket(2, Duration.ofSeconds(2));
+        bucket.tryAcquire(0);
+        bucket.tryAcquire(0);
+        bucket.release(0);
+
+        assertThat(bucket.tryAcquire(0).allowed()).isTrue();
+        assertThat(bucket.tryAcquire(0).allowed()).isFalse();
+
+        bucket.release(0);
+        bucket.release(0);
+        bucket.release(0);
+        assertThat(bucket.isIdle(0)).isTrue();
+        assertThat(bucket.tryAcquire(0).remaining()).isEqualTo(1);
+    }
+}
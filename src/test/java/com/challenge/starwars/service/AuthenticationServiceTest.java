@@ -1,10 +1,13 @@
 package com.challenge.starwars.service;
 
 import com.challenge.starwars.dto.request.AuthenticationRequest;
+import com.challenge.starwars.dto.request.RefreshTokenRequest;
 import com.challenge.starwars.dto.request.RegisterRequest;
 import com.challenge.starwars.dto.response.AuthenticationResponse;
 import com.challenge.starwars.entity.User;
 import com.challenge.starwars.repository.UserRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -33,6 +36,12 @@ class AuthenticationServiceTest {
     private AuthenticationManager authenticationManager;
     @Mock
     private JwtService jwtService;
+    @Mock
+    private UserCacheEvictor userCacheEvictor;
+    @Mock
+    private RefreshTokenService refreshTokenService;
+    @Mock
+    private TokenRevocationService tokenRevocationService;
 
     @InjectMocks
     private AuthenticationServiceImpl authService;
@@ -48,6 +57,7 @@ class AuthenticationServiceTest {
         authService.register(request);
 
         verify(userRepository, times(1)).save(any(User.class));
+        verify(userCacheEvictor).evictAfterCommit("user@test.com");
     }
 
     @Test
@@ -59,10 +69,12 @@ class AuthenticationServiceTest {
 
         when(userRepository.findByUsername("user@test.com")).thenReturn(Optional.of(user));
         when(jwtService.generateToken(anyMap(), any(User.class))).thenReturn("fake-jwt-token");
+        when(refreshTokenService.issue(user)).thenReturn("fake-refresh-token");
 
         AuthenticationResponse response = authService.login(request);
 
         assertThat(response.getToken()).isEqualTo("fake-jwt-token");
+        assertThat(response.getRefreshToken()).isEqualTo("fake-refresh-token");
         verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
     }
 
@@ -87,4 +99,34 @@ class AuthenticationServiceTest {
         assertThatThrownBy(() -> authService.login(request))
                 .isInstanceOf(UsernameNotFoundException.class);
     }
+
+    @Test
+    @DisplayName("Refresh válido devuelve un JWT nuevo sin verificar la contraseña")
+    void shouldRefreshWithoutPasswordCheck() {
+
+        User user = User.builder().username("user@test.com").role("USER").build();
+        when(refreshTokenService.rotate("refresh-1"))
+                .thenReturn(new RefreshTokenService.Rotation("user@test.com", "refresh-2"));
+        when(userRepository.findByUsername("user@test.com")).thenReturn(Optional.of(user));
+        when(jwtService.generateToken(anyMap(), any(User.class))).thenReturn("new-jwt-token");
+
+        AuthenticationResponse response = authService.refresh(new RefreshTokenRequest("refresh-1"));
+
+        assertThat(response.getToken()).isEqualTo("new-jwt-token");
+        assertThat(response.getRefreshToken()).isEqualTo("refresh-2");
+        verifyNoInteractions(authenticationManager, passwordEncoder);
+    }
+
+    @Test
+    @DisplayName("Logout revoca el JWT presentado y la cadena del refresh token")
+    void shouldRevokeTokensOnLogout() {
+
+        Claims claims = Jwts.claims().setSubject("user@test.com");
+        when(jwtService.verifyToken("jwt-token")).thenReturn(claims);
+
+        authService.logout("jwt-token", new RefreshTokenRequest("refresh-1"));
+
+        verify(tokenRevocationService).revoke(claims);
+        verify(refreshTokenService).revoke("refresh-1");
+    }
 }
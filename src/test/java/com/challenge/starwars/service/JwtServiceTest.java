@@ -0,0 +1,65 @@
+package com.challenge.starwars.service;
+
+import com.challenge.starwars.cache.ExpiringCache;
+import com.challenge.starwars.entity.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtServiceTest {
+
+    private static final String SECRET = "Nb8JdKmdp9nZix1SUXo29OJTrMRz6LBgAVETa2Luj5c";
+
+    private final ExpiringCache<String, Claims> verifiedTokenCache = ExpiringCache.<String, Claims>builder("jwt.verified")
+            .ttl(Duration.ofMinutes(5))
+            .build();
+
+    private final JwtService jwtService = new JwtServiceImpl(SECRET, 60_000, verifiedTokenCache);
+
+    private final User user = User.builder().username("luke").role("USER").build();
+
+    @Test
+    @DisplayName("Debe verificar el token una sola vez y reutilizar los claims")
+    void shouldVerifyOnceAndReuseClaims() {
+
+        String token = jwtService.generateToken(Map.of("role", "USER"), user);
+
+        Claims first = jwtService.verifyToken(token);
+        Claims second = jwtService.verifyToken(token);
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.getSubject()).isEqualTo("luke");
+        assertThat(first.get("role", String.class)).isEqualTo("USER");
+        assertThat(jwtService.isTokenValid(first, user)).isTrue();
+        assertThat(verifiedTokenCache.stats().puts()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Debe rechazar un token con la firma alterada")
+    void shouldRejectTamperedToken() {
+
+        String token = jwtService.generateToken(Map.of(), user);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThatThrownBy(() -> jwtService.verifyToken(tampered)).isInstanceOf(SignatureException.class);
+        assertThat(verifiedTokenCache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Debe rechazar un token expirado")
+    void shouldRejectExpiredToken() {
+
+        JwtService expiringService = new JwtServiceImpl(SECRET, -1_000, verifiedTokenCache);
+        String token = expiringService.generateToken(Map.of(), user);
+
+        assertThatThrownBy(() -> jwtService.verifyToken(token)).isInstanceOf(ExpiredJwtException.class);
+    }
+}
@@ -0,0 +1,99 @@
+package com.challenge.starwars.service;
+
+import com.challenge.starwars.cache.Versioned;
+import com.challenge.starwars.dto.response.PeoplePageResponse;
+import com.challenge.starwars.dto.response.PeopleSummaryResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PeopleCatalogTest {
+
+    private final PeopleCatalog catalog = new PeopleCatalog();
+
+    @Test
+    @DisplayName("No debe devolver páginas mientras el catálogo no está cargado")
+    void shouldReturnEmptyWhenNotLoaded() {
+
+        assertThat(catalog.isLoaded()).isFalse();
+        assertThat(catalog.getPage(1, 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Debe calcular totales y ordenar por uid numérico")
+    void shouldComputeTotalsLocally() {
+
+        catalog.replace(people(25));
+
+        PeoplePageResponse page = catalog.getPage(3, 10).orElseThrow();
+
+        assertThat(page.getTotalRecords()).isEqualTo(25);
+        assertThat(page.getTotalPages()).isEqualTo(3);
+        assertThat(page.getResults()).extracting(PeopleSummaryResponse::getUid)
+                .containsExactly("21", "22", "23", "24", "25");
+    }
+
+    @Test
+    @DisplayName("Debe devolver resultados vacíos para páginas fuera de rango")
+    void shouldReturnEmptyResultsBeyondLastPage() {
+
+        catalog.replace(people(5));
+
+        PeoplePageResponse page = catalog.getPage(4, 2).orElseThrow();
+
+        assertThat(page.getResults()).isEmpty();
+        assertThat(page.getTotalPages()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Debe rechazar page o limit no positivos")
+    void shouldRejectInvalidPaging() {
+
+        catalog.replace(people(5));
+
+        assertThatThrownBy(() -> catalog.getPage(0, 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> catalog.getPage(1, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Debe mantener la versión si el contenido no cambia y cambiarla si cambia")
+    void shouldDeriveVersionFromContent() {
+
+        catalog.replace(people(5));
+        String version = catalog.getVersion().orElseThrow();
+
+        catalog.replace(people(5));
+        assertThat(catalog.getVersion()).contains(version);
+
+        catalog.replace(people(6));
+        assertThat(catalog.getVersion()).isPresent().get().isNotEqualTo(version);
+    }
+
+    @Test
+    @DisplayName("Debe etiquetar la página con la versión de la instantánea que la produjo")
+    void shouldVersionPageWithItsOwnSnapshot() {
+
+        catalog.replace(people(5));
+        String version = catalog.getVersion().orElseThrow();
+
+        Versioned<PeoplePageResponse> page = catalog.getVersionedPage(1, 10).orElseThrow();
+        catalog.replace(people(6));
+
+        assertThat(page.value().getTotalRecords()).isEqualTo(5);
+        assertThat(page.etag()).isEqualTo(Versioned.etag(version, "page", 1, 10));
+        assertThat(catalog.getVersionedPage(1, 10).orElseThrow().etag()).isNotEqualTo(page.etag());
+    }
+
+    private static List<PeopleSummaryResponse> people(int count) {
+        return IntStream.rangeClosed(1, count)
+                .boxed()
+                .sorted((a, b) -> b - a)
+                .map(i -> PeopleSummaryResponse.builder().uid(String.valueOf(i)).name("Personaje " + i).build())
+                .toList();
+    }
+}
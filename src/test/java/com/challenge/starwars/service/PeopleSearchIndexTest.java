@@ -0,0 +1,64 @@
+package com.challenge.starwars.service;
+
+import com.challenge.starwars.dto.response.PeopleSummaryResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PeopleSearchIndexTest {
+
+    private final PeopleSearchIndex index = PeopleSearchIndex.build(List.of(
+            person("1", "Luke Skywalker"),
+            person("4", "Darth Vader"),
+            person("11", "Anakin Skywalker"),
+            person("13", "Chewbacca"),
+            person("20", "Yoda"),
+            person("43", "Shmi Skywalker"),
+            person("60", "Padmé Amidala")
+    ));
+
+    @Test
+    @DisplayName("Debe encontrar subcadenas sin distinguir mayúsculas")
+    void shouldMatchCaseInsensitiveSubstrings() {
+
+        assertThat(names(index.search("WALK")))
+                .containsExactlyInAnyOrder("Luke Skywalker", "Anakin Skywalker", "Shmi Skywalker");
+    }
+
+    @Test
+    @DisplayName("Debe priorizar prefijo del nombre sobre prefijo de palabra y subcadena")
+    void shouldRankPrefixMatchesFirst() {
+
+        assertThat(names(index.search("sky"))).containsExactly("Luke Skywalker", "Shmi Skywalker", "Anakin Skywalker");
+        assertThat(names(index.search("a")).getFirst()).isEqualTo("Anakin Skywalker");
+        assertThat(names(index.search("yoda"))).containsExactly("Yoda");
+    }
+
+    @Test
+    @DisplayName("Debe ignorar acentos y espacios sobrantes")
+    void shouldIgnoreAccentsAndExtraSpaces() {
+
+        assertThat(names(index.search("  padme  "))).containsExactly("Padmé Amidala");
+        assertThat(names(index.search("darth   vader"))).containsExactly("Darth Vader");
+    }
+
+    @Test
+    @DisplayName("Debe devolver vacío cuando no hay coincidencias")
+    void shouldReturnEmptyWhenNothingMatches() {
+
+        assertThat(index.search("jar jar")).isEmpty();
+        assertThat(index.search("  ")).isEmpty();
+        assertThat(index.search("zz")).isEmpty();
+    }
+
+    private static PeopleSummaryResponse person(String uid, String name) {
+        return PeopleSummaryResponse.builder().uid(uid).name(name).build();
+    }
+
+    private static List<String> names(List<PeopleSummaryResponse> people) {
+        return people.stream().map(PeopleSummaryResponse::getName).toList();
+    }
+}
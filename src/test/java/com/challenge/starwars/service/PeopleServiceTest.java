@@ -1,8 +1,20 @@
 package com.challenge.starwars.service;
 
+import com.challenge.starwars.client.AdaptiveConcurrencyLimiter;
+import com.challenge.starwars.client.SwapiBulkhead;
+import com.challenge.starwars.client.SwapiCircuitBreaker;
+import com.challenge.starwars.client.SwapiClient;
+import com.challenge.starwars.client.SwapiHedging;
+import com.challenge.starwars.client.SwapiRetry;
+import com.challenge.starwars.config.CacheConfig;
 import com.challenge.starwars.config.RestClientConfig;
+import com.challenge.starwars.dto.response.PeopleBatchResponse;
 import com.challenge.starwars.dto.response.PeoplePageResponse;
+import com.challenge.starwars.dto.response.PeopleSummaryResponse;
 import com.challenge.starwars.exception.ResourceNotFoundException;
+import com.challenge.starwars.exception.ServiceUnavailableException;
+import com.challenge.starwars.exception.SwapiUnavailableException;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,8 +22,11 @@ import org.springframework.boot.test.autoconfigure.web.client.RestClientTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.test.web.client.ExpectedCount;
 import org.springframework.test.web.client.MockRestServiceServer;
 
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.hamcrest.Matchers.containsString;
@@ -21,7 +36,8 @@ import static org.springframework.test.web.client.response.MockRestResponseCreat
 import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
 
 @RestClientTest(PeopleService.class)
-@Import(RestClientConfig.class)
+@Import({RestClientConfig.class, CacheConfig.class, SwapiClient.class, SwapiBulkhead.class,
+        SwapiCircuitBreaker.class, SwapiRetry.class, SwapiHedging.class, AdaptiveConcurrencyLimiter.class, PeopleCatalog.class})
 class PeopleServiceTest {
 
     @Autowired
@@ -30,6 +46,18 @@ class PeopleServiceTest {
     @Autowired
     private MockRestServiceServer server;
 
+    @Autowired
+    private PeopleCatalog peopleCatalog;
+
+    @Autowired
+    private SwapiCircuitBreaker circuitBreaker;
+
+    @AfterEach
+    void resetState() {
+        peopleCatalog.clear();
+        circuitBreaker.reset();
+    }
+
     @Test
     @DisplayName("Debe mapear correctamente cuando el personaje existe")
     void shouldReturnPersonWhenIdExists() {
@@ -52,6 +80,53 @@ class PeopleServiceTest {
         assertThat(result.getName()).isEqualTo("Luke Skywalker");
     }
 
+    @Test
+    @DisplayName("Debe servir el personaje desde la caché en la segunda consulta")
+    void shouldServePersonFromCacheOnSecondCall() {
+
+        String id = "2";
+        String sampleJson = """
+        {
+          "result": {
+            "properties": { "name": "C-3PO", "height": "167" }
+          }
+        }
+        """;
+
+        this.server.expect(ExpectedCount.once(), requestTo(containsString("/people/" + id)))
+                .andRespond(withSuccess(sampleJson, MediaType.APPLICATION_JSON));
+
+        var first = peopleService.getPersonById(id);
+        var second = peopleService.getPersonById(id);
+
+        this.server.verify();
+        assertThat(second).isSameAs(first);
+        assertThat(second.getName()).isEqualTo("C-3PO");
+    }
+
+    @Test
+    @DisplayName("Debe devolver el ETag precalculado del personaje cacheado sin llamar a SWAPI")
+    void shouldReuseCachedPersonEtag() {
+
+        String sampleJson = """
+        {
+          "result": {
+            "properties": { "name": "Darth Vader", "height": "202" }
+          }
+        }
+        """;
+
+        this.server.expect(ExpectedCount.once(), requestTo(containsString("/people/4")))
+                .andRespond(withSuccess(sampleJson, MediaType.APPLICATION_JSON));
+
+        var first = peopleService.getVersionedPersonById("4");
+        var second = peopleService.getVersionedPersonById("4");
+
+        this.server.verify();
+        assertThat(second.etag()).isEqualTo(first.etag());
+        assertThat(second.value().getName()).isEqualTo("Darth Vader");
+    }
+
     @Test
     @DisplayName("Debe retornar lista paginada cuando no se envía nombre")
     void shouldReturnPagedPeopleWhenNoNameProvided() throws Exception {
@@ -77,6 +152,43 @@ class PeopleServiceTest {
         assertEquals(10, result.getTotalRecords());
     }
 
+    @Test
+    @DisplayName("Debe paginar en memoria sin llamar a SWAPI cuando el catálogo está cargado")
+    void shouldSlicePagesFromCatalogWithoutUpstreamCall() {
+
+        peopleCatalog.replace(List.of(
+                PeopleSummaryResponse.builder().uid("3").name("R2-D2").build(),
+                PeopleSummaryResponse.builder().uid("1").name("Luke Skywalker").build(),
+                PeopleSummaryResponse.builder().uid("2").name("C-3PO").build()
+        ));
+
+        PeoplePageResponse result = peopleService.getPeople(null, 2, 2);
+
+        this.server.verify();
+        assertEquals(3, result.getTotalRecords());
+        assertEquals(2, result.getTotalPages());
+        assertEquals(1, result.getResults().size());
+        assertEquals("R2-D2", result.getResults().get(0).getName());
+    }
+
+    @Test
+    @DisplayName("Debe etiquetar las páginas del catálogo con ETags estables por página")
+    void shouldTagCatalogPagesWithStableEtags() {
+
+        peopleCatalog.replace(List.of(
+                PeopleSummaryResponse.builder().uid("1").name("Luke Skywalker").build(),
+                PeopleSummaryResponse.builder().uid("2").name("C-3PO").build()
+        ));
+
+        var first = peopleService.getVersionedPeople(null, 1, 1);
+        var again = peopleService.getVersionedPeople(null, 1, 1);
+        var second = peopleService.getVersionedPeople(null, 2, 1);
+
+        this.server.verify();
+        assertThat(again.etag()).isEqualTo(first.etag()).startsWith("\"").endsWith("\"");
+        assertThat(second.etag()).isNotEqualTo(first.etag());
+    }
+
     @Test
     @DisplayName("Debe retornar lista de búsqueda cuando se envía nombre")
     void shouldReturnSearchPeopleWhenNameProvided() throws Exception {
@@ -106,6 +218,25 @@ class PeopleServiceTest {
         assertEquals(1, result.getTotalRecords());
     }
 
+    @Test
+    @DisplayName("Debe buscar en el índice local sin llamar a SWAPI cuando el catálogo está cargado")
+    void shouldSearchLocalIndexWhenCatalogLoaded() {
+
+        peopleCatalog.replace(List.of(
+                PeopleSummaryResponse.builder().uid("1").name("Luke Skywalker").build(),
+                PeopleSummaryResponse.builder().uid("11").name("Anakin Skywalker").build(),
+                PeopleSummaryResponse.builder().uid("20").name("Yoda").build()
+        ));
+
+        PeoplePageResponse result = peopleService.getPeople("skywalker", 1, 10);
+        PeoplePageResponse empty = peopleService.getPeople("Jar Jar", 1, 10);
+
+        this.server.verify();
+        assertEquals(2, result.getTotalRecords());
+        assertEquals("Luke Skywalker", result.getResults().get(0).getName());
+        assertEquals(0, empty.getTotalRecords());
+    }
+
     @Test
     @DisplayName("Debe retornar DTO vacío cuando la API no encuentra resultados")
     void shouldReturnEmptyDtoWhenNoResultsFound() {
@@ -136,17 +267,183 @@ class PeopleServiceTest {
                 .hasMessageContaining("No se encontró el personaje");
     }
 
+    @Test
+    @DisplayName("Debe recordar los IDs inexistentes y no volver a consultar SWAPI")
+    void shouldCacheNotFoundIds() {
+
+        String id = "997";
+        this.server.expect(ExpectedCount.once(), requestTo(containsString("/people/" + id)))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND));
+
+        assertThatThrownBy(() -> peopleService.getPersonById(id)).isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> peopleService.getPersonById(id))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessageContaining(id);
+
+        this.server.verify();
+    }
+
+    @Test
+    @DisplayName("No debe recordar como inexistente un ID que SWAPI limitó con 429")
+    void shouldNotCacheRateLimitedIdsAsNotFound() {
+
+        String sampleJson = """
+        {
+          "result": {
+            "properties": { "name": "Beru Whitesun lars", "height": "165" }
+          }
+        }
+        """;
+
+        this.server.expect(ExpectedCount.times(3), requestTo(containsString("/people/7")))
+                .andRespond(withStatus(HttpStatus.TOO_MANY_REQUESTS));
+        this.server.expect(requestTo(containsString("/people/7")))
+                .andRespond(withSuccess(sampleJson, MediaType.APPLICATION_JSON));
+
+        assertThatThrownBy(() -> peopleService.getPersonById("7"))
+                .isInstanceOf(SwapiUnavailableException.class);
+        var result = peopleService.getPersonById("7");
+
+        this.server.verify();
+        assertThat(result.getName()).isEqualTo("Beru Whitesun lars");
+    }
+
+    @Test
+    @DisplayName("Debe responder 404 sin llamar a SWAPI cuando el ID no tiene un formato válido")
+    void shouldRejectInvalidIdWithoutCallingSwapi() {
+
+        assertThatThrownBy(() -> peopleService.getPersonById("abc"))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .satisfies(ex -> assertThat(ex.getStackTrace()).isEmpty());
+        assertThatThrownBy(() -> peopleService.getPersonById("0")).isInstanceOf(ResourceNotFoundException.class);
+
+        this.server.verify();
+    }
+
+    @Test
+    @DisplayName("Debe devolver resultados parciales y errores por ID en la consulta por lotes")
+    void shouldReturnPartialResultsForBatch() {
+
+        String sampleJson = """
+        {
+          "result": {
+            "properties": { "name": "Leia Organa", "height": "150" }
+          }
+        }
+        """;
+
+        this.server.expect(requestTo(containsString("/people/5")))
+                .andRespond(withSuccess(sampleJson, MediaType.APPLICATION_JSON));
+        this.server.expect(requestTo(containsString("/people/998")))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND));
+
+        peopleService.getPersonById("5");
+        PeopleBatchResponse result = peopleService.getPeopleByIds(List.of("5", "998", "5"));
+
+        this.server.verify();
+        assertThat(result.getResults()).containsOnlyKeys("5");
+        assertThat(result.getResults().get("5").getName()).isEqualTo("Leia Organa");
+        assertThat(result.getErrors()).containsOnlyKeys("998");
+        assertThat(result.getErrors().get("998").getStatus()).isEqualTo(404);
+    }
+
+    @Test
+    @DisplayName("Debe rechazar lotes vacíos")
+    void shouldRejectEmptyBatch() {
+
+        assertThatThrownBy(() -> peopleService.getPeopleByIds(List.of(" ")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
     @Test
     @DisplayName("Debe lanzar RuntimeException cuando la paginación de SWAPI falla")
     void shouldThrowExceptionWhenPaginationFails() {
 
-        this.server.expect(requestTo(containsString("/people?page=1")))
+        this.server.expect(ExpectedCount.times(3), requestTo(containsString("/people?page=1")))
                 .andRespond(withStatus(HttpStatus.INTERNAL_SERVER_ERROR));
 
 
         assertThatThrownBy(() -> peopleService.getPeople(null, 1, 10))
                 .isInstanceOf(RuntimeException.class)
                 .hasMessageContaining("Error al recuperar lista paginada");
+        this.server.verify();
+    }
+
+    @Test
+    @DisplayName("Debe tratar un 429 en la búsqueda como fallo transitorio de SWAPI y reintentarlo")
+    void shouldRetryRateLimitedSearch() {
+
+        String jsonResponse = """
+                {
+                    "result": [
+                        { "uid": "4", "properties": { "name": "Darth Vader" } }
+                    ]
+                }
+                """;
+
+        this.server.expect(requestTo(containsString("/people/?name=Vader")))
+                .andRespond(withStatus(HttpStatus.TOO_MANY_REQUESTS));
+        this.server.expect(requestTo(containsString("/people/?name=Vader")))
+                .andRespond(withSuccess(jsonResponse, MediaType.APPLICATION_JSON));
+
+        PeoplePageResponse result = peopleService.getPeople("Vader", 1, 10);
+
+        this.server.verify();
+        assertEquals("Darth Vader", result.getResults().get(0).getName());
+    }
+
+    @Test
+    @DisplayName("Debe responder 503 cuando SWAPI limita la paginación con 429 en todos los intentos")
+    void shouldMapRateLimitedPaginationToUnavailable() {
+
+        this.server.expect(ExpectedCount.times(3), requestTo(containsString("/people?page=2")))
+                .andRespond(withStatus(HttpStatus.TOO_MANY_REQUESTS));
+
+        assertThatThrownBy(() -> peopleService.getPeople(null, 2, 10))
+                .isInstanceOf(SwapiUnavailableException.class);
+        this.server.verify();
+    }
+
+    @Test
+    @DisplayName("Debe reintentar y recuperarse cuando SWAPI falla de forma transitoria")
+    void shouldRetryTransientUpstreamFailure() {
+
+        String sampleJson = """
+        {
+          "result": {
+            "properties": { "name": "Owen Lars", "height": "178" }
+          }
+        }
+        """;
+
+        this.server.expect(requestTo(containsString("/people/6")))
+                .andRespond(withStatus(HttpStatus.BAD_GATEWAY));
+        this.server.expect(requestTo(containsString("/people/6")))
+                .andRespond(withSuccess(sampleJson, MediaType.APPLICATION_JSON));
+
+        var result = peopleService.getPersonById("6");
+
+        this.server.verify();
+        assertThat(result.getName()).isEqualTo("Owen Lars");
+    }
+
+    @Test
+    @DisplayName("Debe responder 503 sin llamar a SWAPI cuando el circuito está abierto")
+    void shouldFailFastWhenCircuitIsOpen() {
+
+        this.server.expect(ExpectedCount.manyTimes(), requestTo(containsString("/people/")))
+                .andRespond(withStatus(HttpStatus.SERVICE_UNAVAILABLE));
+
+        for (int i = 0; i < 4; i++) {
+            String id = String.valueOf(100 + i);
+            assertThatThrownBy(() -> peopleService.getPersonById(id))
+                    .isInstanceOf(ServiceUnavailableException.class);
+        }
+
+        assertThat(circuitBreaker.getState()).isEqualTo(SwapiCircuitBreaker.State.OPEN);
+        assertThatThrownBy(() -> peopleService.getPersonById("200"))
+                .isInstanceOf(ServiceUnavailableException.class)
+                .isNotInstanceOf(SwapiUnavailableException.class);
     }
 
     @Test
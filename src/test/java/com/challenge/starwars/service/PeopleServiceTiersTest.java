@@ -0,0 +1,185 @@
+package com.challenge.starwars.service;
+
+import com.challenge.starwars.cache.DiskCache;
+import com.challenge.starwars.cache.ExpiringCache;
+import com.challenge.starwars.cache.SharedCache;
+import com.challenge.starwars.cache.SharedCacheBackend;
+import com.challenge.starwars.cache.Versioned;
+import com.challenge.starwars.client.SwapiClient;
+import com.challenge.starwars.dto.external.SwapiPeopleSingleResponse;
+import com.challenge.starwars.dto.response.PeopleDetailResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Orden de consulta de los niveles de caché de un personaje y su coherencia entre réplicas,
+ * con la caché compartida sobre un backend en memoria que entrega los mensajes al momento.
+ */
+class PeopleServiceTiersTest {
+
+    private final SwapiClient swapiClient = mock(SwapiClient.class);
+
+    private final PeopleStore peopleStore = mock(PeopleStore.class);
+
+    private final InMemoryBackend backend = new InMemoryBackend();
+
+    private final SharedCache<PeopleDetailResponse> otherReplica = sharedCache();
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private final PeopleServiceImpl peopleService = service(
+            ExpiringCache.<String, Versioned<PeopleDetailResponse>>builder("people.detail").ttl(Duration.ofMinutes(5)).build());
+
+    @Test
+    @DisplayName("Debe preferir la caché compartida a la copia de la tabla local")
+    void shouldPreferSharedCacheOverLocalStore() {
+
+        when(peopleStore.findDetails("1")).thenReturn(Optional.of(person("Luke Skywalker")));
+        otherReplica.put("1", person("Luke Skywalker (Jedi)"));
+
+        assertThat(peopleService.getPersonById("1").getName()).isEqualTo("Luke Skywalker (Jedi)");
+        verifyNoInteractions(swapiClient);
+    }
+
+    @Test
+    @DisplayName("Debe descartar la copia local y actualizar la tabla al recibir una invalidación")
+    void shouldRefreshLocalTiersOnInvalidation() {
+
+        peopleService.subscribeToInvalidations();
+        otherReplica.put("1", person("Luke Skywalker"));
+        assertThat(peopleService.getPersonById("1").getName()).isEqualTo("Luke Skywalker");
+
+        PeopleDetailResponse changed = person("Luke Skywalker (Jedi)");
+        otherReplica.put("1", changed);
+
+        verify(peopleStore).saveDetails(Map.of("1", changed));
+        assertThat(peopleService.getPersonById("1").getName()).isEqualTo("Luke Skywalker (Jedi)");
+    }
+
+    @Test
+    @DisplayName("Debe refrescar desde SWAPI una entrada caliente y propagar el cambio a todos los niveles")
+    void shouldRefreshHotEntryFromUpstream() {
+
+        when(peopleStore.findDetails("1")).thenReturn(Optional.of(person("Luke Skywalker")));
+        assertThat(peopleService.getPersonById("1").getName()).isEqualTo("Luke Skywalker");
+        when(swapiClient.getPerson("1")).thenReturn(swapiPerson("Luke Skywalker (Jedi)"));
+
+        peopleService.refreshPerson("1");
+
+        assertThat(peopleService.getPersonById("1").getName()).isEqualTo("Luke Skywalker (Jedi)");
+        assertThat(otherReplica.get("1")).map(PeopleDetailResponse::getName).contains("Luke Skywalker (Jedi)");
+        verify(peopleStore).saveDetails(Map.of("1", person("Luke Skywalker (Jedi)")));
+    }
+
+    @Test
+    @DisplayName("Debe revalidar desde SWAPI una entrada vencida aunque los niveles locales la conserven")
+    void shouldRevalidateStaleEntryFromUpstream() {
+
+        PeopleServiceImpl revalidating = service(ExpiringCache.<String, Versioned<PeopleDetailResponse>>builder("people.detail")
+                .ttl(Duration.ofMinutes(1))
+                .staleWhileRevalidate(Duration.ofMinutes(5))
+                .refreshExecutor(Runnable::run)
+                .nanoTime(clock::get)
+                .build());
+        when(peopleStore.findDetails("1")).thenReturn(Optional.of(person("Luke Skywalker")));
+        assertThat(revalidating.getPersonById("1").getName()).isEqualTo("Luke Skywalker");
+        when(swapiClient.getPerson("1")).thenReturn(swapiPerson("Luke Skywalker (Jedi)"));
+
+        clock.addAndGet(Duration.ofMinutes(2).toNanos());
+
+        assertThat(revalidating.getPersonById("1").getName()).isEqualTo("Luke Skywalker");
+        assertThat(revalidating.getPersonById("1").getName()).isEqualTo("Luke Skywalker (Jedi)");
+        verify(peopleStore).saveDetails(Map.of("1", person("Luke Skywalker (Jedi)")));
+    }
+
+    private PeopleServiceImpl service(ExpiringCache<String, Versioned<PeopleDetailResponse>> peopleDetailCache) {
+        return new PeopleServiceImpl(swapiClient, peopleDetailCache,
+                ExpiringCache.<String, Boolean>builder("people.not-found").ttl(Duration.ofMinutes(1)).build(),
+                new PeopleCatalog(), 50, 8,
+                provider(PeopleStore.class, peopleStore),
+                provider(PeopleSnapshotFile.class, null),
+                provider(DiskCache.class, null),
+                provider(SharedCache.class, sharedCache()));
+    }
+
+    private SharedCache<PeopleDetailResponse> sharedCache() {
+        return SharedCache.<PeopleDetailResponse>builder("people.detail.shared")
+                .backend(backend)
+                .codec(person -> person.getName().getBytes(StandardCharsets.UTF_8),
+                        bytes -> person(new String(bytes, StandardCharsets.UTF_8)))
+                .build();
+    }
+
+    private static PeopleDetailResponse person(String name) {
+        return PeopleDetailResponse.builder().name(name).build();
+    }
+
+    private static SwapiPeopleSingleResponse swapiPerson(String name) {
+        SwapiPeopleSingleResponse.PersonProperties properties = new SwapiPeopleSingleResponse.PersonProperties();
+        properties.setName(name);
+        SwapiPeopleSingleResponse.PersonResult result = new SwapiPeopleSingleResponse.PersonResult();
+        result.setProperties(properties);
+        SwapiPeopleSingleResponse response = new SwapiPeopleSingleResponse();
+        response.setResult(result);
+        return response;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> ObjectProvider<T> provider(Class<?> type, Object bean) {
+        Map<String, Object> beans = bean == null ? Map.of() : Map.of(type.getSimpleName(), bean);
+        return (ObjectProvider<T>) new StaticListableBeanFactory(beans).getBeanProvider(type);
+    }
+
+    private static final class InMemoryBackend implements SharedCacheBackend {
+
+        private final Map<String, byte[]> values = new ConcurrentHashMap<>();
+        private final Map<String, List<Consumer<String>>> listeners = new ConcurrentHashMap<>();
+
+        @Override
+        public Optional<byte[]> get(String key) {
+            return Optional.ofNullable(values.get(key));
+        }
+
+        @Override
+        public Optional<byte[]> getAndSet(String key, byte[] value, Duration ttl) {
+            return Optional.ofNullable(values.put(key, value));
+        }
+
+        @Override
+        public void delete(String key) {
+            values.remove(key);
+        }
+
+        @Override
+        public void publish(String channel, String message) {
+            listeners.getOrDefault(channel, List.of()).forEach(listener -> listener.accept(message));
+        }
+
+        @Override
+        public void subscribe(String channel, Consumer<String> listener) {
+            listeners.computeIfAbsent(channel, key -> new CopyOnWriteArrayList<>()).add(listener);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
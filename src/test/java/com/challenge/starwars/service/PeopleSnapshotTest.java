@@ -0,0 +1,70 @@
+package com.challenge.starwars.service;
+
+import com.challenge.starwars.dto.response.PeopleDetailResponse;
+import com.challenge.starwars.dto.response.PeopleSummaryResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PeopleSnapshotTest {
+
+    @TempDir
+    private Path directory;
+
+    private final List<PeopleSnapshot.Entry> entries = List.of(
+            new PeopleSnapshot.Entry(10, "Obi-Wan Kenobi", "male", "182", "https://www.swapi.tech/api/people/10", true),
+            new PeopleSnapshot.Entry(1, "Luke Skywalker", "male", "172", "https://www.swapi.tech/api/people/1", true),
+            new PeopleSnapshot.Entry(5, "Padmé Amidala", null, null, null, false)
+    );
+
+    @Test
+    @DisplayName("Debe leer personajes y páginas directamente de la instantánea mapeada")
+    void shouldServeFromMappedSnapshot() throws IOException {
+
+        Path file = directory.resolve("people.snapshot");
+        PeopleSnapshot.write(file, entries);
+
+        PeopleSnapshot snapshot = PeopleSnapshot.open(file);
+
+        assertThat(snapshot.size()).isEqualTo(3);
+        assertThat(snapshot.findPerson("10")).get().extracting(PeopleDetailResponse::getName).isEqualTo("Obi-Wan Kenobi");
+        assertThat(snapshot.findPerson("5")).isEmpty();
+        assertThat(snapshot.findPerson("2")).isEmpty();
+        assertThat(snapshot.findPerson("abc")).isEmpty();
+        assertThat(snapshot.getPage(1, 2).getResults()).extracting(PeopleSummaryResponse::getUid).containsExactly("1", "5");
+        assertThat(snapshot.getPage(2, 2).getTotalPages()).isEqualTo(2);
+        assertThat(snapshot.search("padme")).extracting(PeopleSummaryResponse::getName).containsExactly("Padmé Amidala");
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files).containsExactly(file);
+        }
+    }
+
+    @Test
+    @DisplayName("Debe rechazar una instantánea dañada o truncada")
+    void shouldRejectCorruptedSnapshot() throws IOException {
+
+        Path file = directory.resolve("people.snapshot");
+        PeopleSnapshot.write(file, entries);
+        byte[] bytes = Files.readAllBytes(file);
+
+        bytes[bytes.length - 1] ^= 0x01;
+        Files.write(file, bytes);
+        assertThatThrownBy(() -> PeopleSnapshot.open(file)).isInstanceOf(IOException.class).hasMessageContaining("checksum");
+
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 4));
+        assertThatThrownBy(() -> PeopleSnapshot.open(file)).isInstanceOf(IOException.class);
+
+        Files.writeString(file, "no es una instantánea");
+        assertThatThrownBy(() -> PeopleSnapshot.open(file)).isInstanceOf(IOException.class);
+    }
+}
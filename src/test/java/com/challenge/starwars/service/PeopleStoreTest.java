@@ -0,0 +1,87 @@
+package com.challenge.starwars.service;
+
+import com.challenge.starwars.dto.response.PeopleDetailResponse;
+import com.challenge.starwars.dto.response.PeopleSummaryResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(PeopleStore.class)
+class PeopleStoreTest {
+
+    @Autowired
+    private PeopleStore peopleStore;
+
+    @Test
+    @DisplayName("Debe escribir sólo los personajes nuevos, renombrados o eliminados")
+    void shouldSyncOnlyChangedSummaries() {
+
+        PeopleStore.SyncResult first = peopleStore.syncSummaries(List.of(summary("1", "Luke Skywalker"),
+                summary("2", "C-3PO"), summary("3", "R2-D2")));
+        PeopleStore.SyncResult second = peopleStore.syncSummaries(List.of(summary("1", "Luke Skywalker"),
+                summary("2", "C-3PO (Threepio)"), summary("10", "Obi-Wan Kenobi")));
+
+        assertThat(first).isEqualTo(new PeopleStore.SyncResult(3, 0));
+        assertThat(second).isEqualTo(new PeopleStore.SyncResult(2, 1));
+        assertThat(peopleStore.findAllSummaries()).extracting(PeopleSummaryResponse::getUid)
+                .containsExactlyInAnyOrder("1", "2", "10");
+        assertThat(peopleStore.getPage(1, 2).orElseThrow().getResults()).extracting(PeopleSummaryResponse::getUid)
+                .containsExactly("1", "2");
+    }
+
+    @Test
+    @DisplayName("Debe servir el detalle sólo cuando ya se sincronizó y pedirlo de nuevo tras un cambio")
+    void shouldTrackPendingDetails() {
+
+        peopleStore.syncSummaries(List.of(summary("1", "Luke Skywalker"), summary("4", "Darth Vader")));
+        assertThat(peopleStore.findDetails("1")).isEmpty();
+
+        peopleStore.saveDetails(Map.of("1", PeopleDetailResponse.builder()
+                .name("Luke Skywalker").gender("male").height("172").url("https://www.swapi.tech/api/people/1").build()));
+
+        assertThat(peopleStore.findDetails("1")).get().extracting(PeopleDetailResponse::getHeight).isEqualTo("172");
+        assertThat(peopleStore.findUidsNeedingDetails(Instant.now().minusSeconds(60), 10)).containsExactly("4");
+
+        peopleStore.syncSummaries(List.of(summary("1", "Luke"), summary("4", "Darth Vader")));
+
+        assertThat(peopleStore.findDetails("1")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Debe dejar de pedir el detalle de los personajes eliminados")
+    void shouldDeleteMissingPeople() {
+
+        peopleStore.syncSummaries(List.of(summary("1", "Luke Skywalker"), summary("17", "Desconocido")));
+
+        peopleStore.delete(List.of("17"));
+
+        assertThat(peopleStore.findUidsNeedingDetails(Instant.now().minusSeconds(60), 10)).containsExactly("1");
+        assertThat(peopleStore.findAllSummaries()).extracting(PeopleSummaryResponse::getUid).containsExactly("1");
+    }
+
+    @Test
+    @DisplayName("Debe buscar por nombre sin distinguir mayúsculas ni acentos")
+    void shouldSearchByNormalizedName() {
+
+        assertThat(peopleStore.search("luke")).isEmpty();
+
+        peopleStore.syncSummaries(List.of(summary("1", "Luke Skywalker"), summary("5", "Padmé Amidala")));
+
+        assertThat(peopleStore.search("PADME").orElseThrow()).extracting(PeopleSummaryResponse::getUid)
+                .containsExactly("5");
+        assertThat(peopleStore.search("100%").orElseThrow()).isEmpty();
+    }
+
+    private static PeopleSummaryResponse summary(String uid, String name) {
+        return PeopleSummaryResponse.builder().uid(uid).name(name).build();
+    }
+}
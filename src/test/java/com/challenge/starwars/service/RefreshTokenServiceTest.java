@@ -0,0 +1,61 @@
+package com.challenge.starwars.service;
+
+import com.challenge.starwars.entity.User;
+import com.challenge.starwars.exception.InvalidRefreshTokenException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Import(RefreshTokenServiceImpl.class)
+class RefreshTokenServiceTest {
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    private final User user = User.builder().username("han@test.com").role("USER").build();
+
+    @Test
+    @DisplayName("Debe rotar el refresh token en cada uso")
+    void shouldRotateOnEachUse() {
+
+        String first = refreshTokenService.issue(user);
+
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(first);
+
+        assertThat(rotation.username()).isEqualTo("han@test.com");
+        assertThat(rotation.refreshToken()).isNotEqualTo(first);
+        assertThat(refreshTokenService.rotate(rotation.refreshToken()).refreshToken()).isNotBlank();
+    }
+
+    @Test
+    @DisplayName("Debe revocar la familia completa si se reutiliza un token ya rotado")
+    void shouldRevokeFamilyOnReuse() {
+
+        String first = refreshTokenService.issue(user);
+        String second = refreshTokenService.rotate(first).refreshToken();
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(first))
+                .isInstanceOf(InvalidRefreshTokenException.class);
+        assertThatThrownBy(() -> refreshTokenService.rotate(second))
+                .isInstanceOf(InvalidRefreshTokenException.class);
+    }
+
+    @Test
+    @DisplayName("Debe rechazar tokens revocados o desconocidos")
+    void shouldRejectRevokedOrUnknownTokens() {
+
+        String token = refreshTokenService.issue(user);
+        refreshTokenService.revoke(token);
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(token))
+                .isInstanceOf(InvalidRefreshTokenException.class);
+        assertThatThrownBy(() -> refreshTokenService.rotate("desconocido"))
+                .isInstanceOf(InvalidRefreshTokenException.class);
+    }
+}
@@ -0,0 +1,142 @@
+package com.challenge.starwars.service;
+
+import com.challenge.starwars.cache.SharedCacheBackend;
+import com.challenge.starwars.entity.RevokedToken;
+import com.challenge.starwars.repository.RevokedTokenRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Sin transacción de prueba: la revocación llega al filtro al confirmar la suya.
+ */
+@DataJpaTest
+@Import(TokenRevocationServiceImpl.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TokenRevocationServiceTest {
+
+    private static final String CHANNEL = "starwars:revocations";
+
+    @Autowired
+    private TokenRevocationServiceImpl tokenRevocationService;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        revokedTokenRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Debe detectar los tokens revocados y dejar pasar el resto")
+    void shouldDetectRevokedTokens() {
+
+        Claims revoked = claims(Instant.now().plus(10, ChronoUnit.MINUTES));
+        Claims active = claims(Instant.now().plus(10, ChronoUnit.MINUTES));
+
+        tokenRevocationService.revoke(revoked);
+
+        assertThat(tokenRevocationService.isRevoked(revoked)).isTrue();
+        assertThat(tokenRevocationService.isRevoked(active)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Debe eliminar las revocaciones de tokens ya expirados")
+    void shouldPruneExpiredRevocations() {
+
+        Claims revoked = claims(Instant.now().plus(10, ChronoUnit.MINUTES));
+        tokenRevocationService.revoke(revoked);
+        revokedTokenRepository.save(RevokedToken.builder()
+                .jti(UUID.randomUUID().toString())
+                .expiresAt(Instant.now().minus(1, ChronoUnit.MINUTES))
+                .build());
+
+        tokenRevocationService.pruneAndRebuild();
+
+        assertThat(revokedTokenRepository.count()).isEqualTo(1);
+        assertThat(tokenRevocationService.isRevoked(revoked)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Debe conservar la revocación aunque el filtro se reconstruya antes de confirmarla")
+    void shouldKeepRevocationWhenFilterIsRebuiltBeforeCommit() {
+
+        Claims revoked = claims(Instant.now().plus(10, ChronoUnit.MINUTES));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            tokenRevocationService.revoke(revoked);
+            Thread rebuild = Thread.ofVirtual().start(tokenRevocationService::pruneAndRebuild);
+            try {
+                rebuild.join();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        assertThat(tokenRevocationService.isRevoked(revoked)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Debe avisar a las demás instancias de la revocación sin esperar a su reconstrucción")
+    void shouldPropagateRevocationToOtherInstances() {
+
+        SharedCacheBackend backend = mock(SharedCacheBackend.class);
+        TokenRevocationServiceImpl replicaA = replica(backend);
+        TokenRevocationServiceImpl replicaB = replica(backend);
+        Claims revoked = claims(Instant.now().plus(10, ChronoUnit.MINUTES));
+
+        replicaA.revoke(revoked);
+        assertThat(replicaB.isRevoked(revoked)).isFalse();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Consumer<String>> listener = ArgumentCaptor.forClass(Consumer.class);
+        verify(backend, times(2)).subscribe(eq(CHANNEL), listener.capture());
+        verify(backend).publish(CHANNEL, revoked.getId());
+        listener.getAllValues().get(1).accept(revoked.getId());
+
+        assertThat(replicaB.isRevoked(revoked)).isTrue();
+    }
+
+    private TokenRevocationServiceImpl replica(SharedCacheBackend backend) {
+        TokenRevocationServiceImpl replica = new TokenRevocationServiceImpl(revokedTokenRepository, 1000, 0.001,
+                "starwars:", new StaticListableBeanFactory(Map.of("sharedCacheBackend", backend))
+                .getBeanProvider(SharedCacheBackend.class));
+        replica.loadFilter();
+        replica.subscribeToRevocations();
+        return replica;
+    }
+
+    private static Claims claims(Instant expiresAt) {
+        return Jwts.claims()
+                .setSubject("lando@test.com")
+                .setId(UUID.randomUUID().toString())
+                .setExpiration(Date.from(expiresAt));
+    }
+}